@@ -0,0 +1,109 @@
+package com.tms.adapter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.adapter.config.NormalizationProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of whole-payload and per-item normalization over array size, object width and
+ * mapping count. {@code mappings=0} is the passthrough case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataNormalizationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int items;
+
+    @Param({"8", "64"})
+    private int fields;
+
+    @Param({"0", "4", "32"})
+    private int mappings;
+
+    @Param({"STREAMING", "TREE"})
+    private NormalizationProperties.Mode mode;
+
+    private DataNormalizationService service;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        service = NormalizationFixture.service(objectMapper, fields, mappings, mode);
+        payload = NormalizationFixture.payload(objectMapper, items, fields, false);
+    }
+
+    @Benchmark
+    public void normalizeData(Blackhole blackhole) {
+        service.normalizeData(new ByteArrayInputStream(payload), new BlackholeOutputStream(blackhole),
+                NormalizationFixture.PARTNER, NormalizationFixture.ENTITY_TYPE);
+    }
+
+    @Benchmark
+    public void normalizeItems(Blackhole blackhole) {
+        service.normalizeItems(new ByteArrayInputStream(payload),
+                NormalizationFixture.PARTNER, NormalizationFixture.ENTITY_TYPE, new BlackholeSink(blackhole));
+    }
+
+    static final class BlackholeOutputStream extends OutputStream {
+        private final Blackhole blackhole;
+
+        BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+        }
+    }
+
+    static final class BlackholeSink implements DataNormalizationService.ItemSink<JsonNode> {
+        private final Blackhole blackhole;
+
+        BlackholeSink(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public JsonNode prepare(JsonNode rawItem, JsonNode normalizedItem) {
+            return normalizedItem;
+        }
+
+        @Override
+        public void normalized(JsonNode normalizedItem) {
+            blackhole.consume(normalizedItem);
+        }
+
+        @Override
+        public void failed(JsonNode rawItem, String errorMessage) {
+            blackhole.consume(errorMessage);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.tms.adapter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.adapter.config.NormalizationProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the required-field failure path: the last item lacks {@code field0}, so the whole
+ * payload is rejected by {@code normalizeData} and one item is reported failed by {@code normalizeItems}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NormalizationFailureBenchmark {
+
+    @Param({"100", "10000"})
+    private int items;
+
+    @Param({"8"})
+    private int fields;
+
+    @Param({"4"})
+    private int mappings;
+
+    @Param({"STREAMING", "TREE"})
+    private NormalizationProperties.Mode mode;
+
+    private DataNormalizationService service;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        service = NormalizationFixture.service(objectMapper, fields, mappings, mode);
+        payload = NormalizationFixture.payload(objectMapper, items, fields, true);
+    }
+
+    @Benchmark
+    public void normalizeDataRejected(Blackhole blackhole) {
+        try {
+            service.normalizeData(new ByteArrayInputStream(payload),
+                    new DataNormalizationBenchmark.BlackholeOutputStream(blackhole),
+                    NormalizationFixture.PARTNER, NormalizationFixture.ENTITY_TYPE);
+        } catch (RuntimeException e) {
+            blackhole.consume(e);
+            return;
+        }
+        throw new IllegalStateException("Payload without required field was accepted");
+    }
+
+    @Benchmark
+    public void normalizeItemsReportsFailure(Blackhole blackhole) {
+        service.normalizeItems(new ByteArrayInputStream(payload), NormalizationFixture.PARTNER,
+                NormalizationFixture.ENTITY_TYPE, new DataNormalizationBenchmark.BlackholeSink(blackhole));
+    }
+}
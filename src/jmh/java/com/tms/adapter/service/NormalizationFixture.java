@@ -0,0 +1,94 @@
+package com.tms.adapter.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.adapter.client.ConfigServiceClient;
+import com.tms.adapter.config.FieldMappingCacheProperties;
+import com.tms.adapter.config.NormalizationProperties;
+import com.tms.adapter.config.PipelineMetrics;
+import com.tms.adapter.dto.FieldMapping;
+import com.tms.adapter.dto.PartnerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a {@link DataNormalizationService} outside Spring, with synthetic mappings and payloads.
+ *
+ * Mapping {@code i} maps {@code field(i % fields)} to {@code target(i)}; only {@code field0} is required.
+ */
+final class NormalizationFixture {
+
+    static final String PARTNER = "BENCH";
+    static final String ENTITY_TYPE = "SHIPMENT";
+
+    private NormalizationFixture() {
+    }
+
+    static DataNormalizationService service(ObjectMapper objectMapper, int fields, int mappings,
+                                            NormalizationProperties.Mode mode) {
+        return service(objectMapper, fields, mappings, mode, new NormalizationProperties.Parallel());
+    }
+
+    static DataNormalizationService service(ObjectMapper objectMapper, int fields, int mappings,
+                                            NormalizationProperties.Mode mode, NormalizationProperties.Parallel parallel) {
+        // Failure benchmarks would otherwise spend most of their time logging
+        ((Logger) LoggerFactory.getLogger(DataNormalizationService.class)).setLevel(Level.OFF);
+
+        List<FieldMapping> fieldMappings = new ArrayList<>();
+        for (int i = 0; i < mappings; i++) {
+            FieldMapping mapping = new FieldMapping();
+            mapping.setPartnerId(PARTNER);
+            mapping.setEntityType(ENTITY_TYPE);
+            mapping.setSourceField("field" + i % fields);
+            mapping.setTargetField("target" + i);
+            mapping.setRequired(i == 0);
+            fieldMappings.add(mapping);
+        }
+        ConfigServiceClient configServiceClient = new ConfigServiceClient() {
+            @Override
+            public List<PartnerConfig> getActivePartners() {
+                return List.of();
+            }
+
+            @Override
+            public List<FieldMapping> getFieldMappings(String partnerId, String entityType) {
+                return fieldMappings;
+            }
+        };
+
+        FieldMappingPlanCache planCache = new FieldMappingPlanCache(configServiceClient,
+                new FieldMappingCacheProperties(), new PipelineMetrics(new SimpleMeterRegistry()));
+        NormalizationProperties properties = new NormalizationProperties();
+        properties.setMode(mode);
+        properties.setParallel(parallel);
+        return new DataNormalizationService(objectMapper, planCache, new StreamingJsonNormalizer(objectMapper), properties);
+    }
+
+    /**
+     * A JSON array of {@code items} objects with {@code fields} string fields each. With
+     * {@code omitRequiredFromLast} the last item lacks the required {@code field0}.
+     */
+    static byte[] payload(ObjectMapper objectMapper, int items, int fields, boolean omitRequiredFromLast) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (int item = 0; item < items; item++) {
+                generator.writeStartObject();
+                int first = omitRequiredFromLast && item == items - 1 ? 1 : 0;
+                for (int field = first; field < fields; field++) {
+                    generator.writeStringField("field" + field, "value-" + item + "-" + field);
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        return out.toByteArray();
+    }
+}
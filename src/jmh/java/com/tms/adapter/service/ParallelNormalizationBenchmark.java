@@ -0,0 +1,65 @@
+package com.tms.adapter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.adapter.config.NormalizationProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-item normalization of large arrays, as staging does it, on the caller thread
+ * ({@code chunkSize=0}) against pool chunks of the given size. Only meaningful on a machine with
+ * several cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelNormalizationBenchmark {
+
+    @Param({"20000", "200000"})
+    private int items;
+
+    @Param({"0", "500", "2000", "10000"})
+    private int chunkSize;
+
+    private DataNormalizationService service;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        NormalizationProperties.Parallel parallel = new NormalizationProperties.Parallel();
+        // A pool of one leaves every chunk to the caller thread
+        parallel.setParallelism(chunkSize == 0 ? 1 : 0);
+        parallel.setChunkSize(chunkSize == 0 ? 2000 : chunkSize);
+        service = NormalizationFixture.service(objectMapper, 16, 12, NormalizationProperties.Mode.STREAMING, parallel);
+        payload = NormalizationFixture.payload(objectMapper, items, 16, false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public void normalizeItems(Blackhole blackhole) {
+        service.normalizeItems(new ByteArrayInputStream(payload), NormalizationFixture.PARTNER,
+                NormalizationFixture.ENTITY_TYPE, new DataNormalizationBenchmark.BlackholeSink(blackhole));
+    }
+}
@@ -0,0 +1,93 @@
+package com.tms.adapter.client;
+
+import com.tms.adapter.config.PartnerApiProperties;
+import com.tms.adapter.entity.EndpointValidator;
+import com.tms.adapter.repository.EndpointValidatorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Remembers the ETag and Last-Modified validators per partner endpoint so that the next poll can
+ * send a conditional request and skip unchanged payloads.
+ *
+ * Validators are only stored after the response has been staged, so a failed poll is never
+ * answered with 304 on the next run.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConditionalRequestStore {
+
+    private final EndpointValidatorRepository endpointValidatorRepository;
+    private final PartnerApiProperties properties;
+
+    /**
+     * Adds If-None-Match / If-Modified-Since for the validators stored for this endpoint.
+     */
+    public void applyTo(HttpHeaders headers, String partnerId, String endpointKey) {
+        if (!properties.isConditionalRequests()) {
+            return;
+        }
+        endpointValidatorRepository.findByPartnerIdAndEndpointKey(partnerId, endpointKey).ifPresent(validator -> {
+            if (validator.getEtag() != null) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, validator.getEtag());
+            }
+            if (validator.getLastModified() != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, validator.getLastModified());
+            }
+        });
+    }
+
+    public void remember(String partnerId, String endpointKey, HttpHeaders responseHeaders) {
+        if (!properties.isConditionalRequests()) {
+            return;
+        }
+        String etag = responseHeaders.getETag();
+        String lastModified = responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED);
+
+        EndpointValidator validator = endpointValidatorRepository
+                .findByPartnerIdAndEndpointKey(partnerId, endpointKey)
+                .orElse(null);
+
+        if (etag == null && lastModified == null) {
+            // Partner stopped sending validators; do not keep sending stale ones
+            if (validator != null) {
+                endpointValidatorRepository.delete(validator);
+            }
+            return;
+        }
+
+        if (validator == null) {
+            validator = EndpointValidator.builder().partnerId(partnerId).endpointKey(endpointKey).build();
+        }
+        validator.setEtag(etag);
+        validator.setLastModified(lastModified);
+        validator.setUpdatedAt(Instant.now());
+
+        try {
+            endpointValidatorRepository.save(validator);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent poll of the same endpoint stored its validators first; either set is valid
+            log.debug("Validators for {} {} stored concurrently", partnerId, endpointKey);
+        }
+    }
+
+    /**
+     * Forces the next poll of every endpoint of the partner to download the full payload.
+     */
+    public void forget(String partnerId) {
+        int removed = endpointValidatorRepository.deleteByPartner(partnerId);
+        if (removed > 0) {
+            log.info("Discarded {} stored validators for partner {}", removed, partnerId);
+        }
+    }
+
+    public void forgetAll() {
+        endpointValidatorRepository.deleteAllInBatch();
+    }
+}
@@ -0,0 +1,171 @@
+package com.tms.adapter.client;
+
+import com.tms.adapter.config.OAuthProperties;
+import com.tms.adapter.dto.OAuthTokenResponse;
+import com.tms.adapter.dto.PartnerConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Client-credentials access tokens for partners that configure an {@code oauthUrl}.
+ *
+ * Tokens are cached per partner until shortly before they expire. Within
+ * {@code refreshBeforeExpiry} the cached token is still used while a new one is fetched in the
+ * background. Concurrent callers share a single in-flight token request per partner.
+ */
+@Component
+@Slf4j
+public class OAuthTokenManager {
+
+    private record Token(String value, Instant refreshAt, Instant usableUntil) {
+    }
+
+    private final PartnerHttpClients partnerHttpClients;
+    private final OAuthProperties properties;
+    private final ExecutorService refreshExecutor;
+
+    private final Map<String, Token> tokens = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Token>> inFlight = new ConcurrentHashMap<>();
+
+    public OAuthTokenManager(PartnerHttpClients partnerHttpClients, OAuthProperties properties) {
+        this.partnerHttpClients = partnerHttpClients;
+        this.properties = properties;
+        // Single-flight keeps the queue to one refresh per partner, however many polls need a token
+        this.refreshExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getRefreshThreads()),
+                new CustomizableThreadFactory("oauth-refresh-"));
+    }
+
+    /**
+     * Runs {@code call} with a bearer token for the partner (null when the partner does not use
+     * OAuth). A 401 discards the token and retries once with a freshly fetched one.
+     */
+    public <T> T withToken(PartnerConfig partnerConfig, Function<String, T> call) {
+        String token = getToken(partnerConfig);
+        try {
+            return call.apply(token);
+        } catch (HttpClientErrorException.Unauthorized e) {
+            if (token == null) {
+                throw e;
+            }
+            log.warn("Partner {} rejected its access token, retrying with a new one", partnerConfig.getPartnerId());
+            invalidate(partnerConfig.getPartnerId(), token);
+            return call.apply(getToken(partnerConfig));
+        }
+    }
+
+    public String getToken(PartnerConfig partnerConfig) {
+        if (!usesOAuth(partnerConfig)) {
+            return null;
+        }
+
+        Token cached = tokens.get(partnerConfig.getPartnerId());
+        Instant now = Instant.now();
+        if (cached != null && now.isBefore(cached.usableUntil())) {
+            if (!now.isBefore(cached.refreshAt())) {
+                refreshAsync(partnerConfig);
+            }
+            return cached.value();
+        }
+
+        try {
+            return refreshAsync(partnerConfig).join().value();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Drops {@code token} unless it has already been replaced by a newer one.
+     */
+    public void invalidate(String partnerId, String token) {
+        tokens.computeIfPresent(partnerId, (id, cached) -> cached.value().equals(token) ? null : cached);
+    }
+
+    // Single-flight: concurrent callers for the same partner share the request that is already running
+    private CompletableFuture<Token> refreshAsync(PartnerConfig partnerConfig) {
+        String partnerId = partnerConfig.getPartnerId();
+        CompletableFuture<Token> created = new CompletableFuture<>();
+        CompletableFuture<Token> existing = inFlight.putIfAbsent(partnerId, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        refreshExecutor.execute(() -> {
+            try {
+                Token token = requestToken(partnerConfig);
+                tokens.put(partnerId, token);
+                created.complete(token);
+            } catch (Exception e) {
+                log.error("Failed to obtain access token for partner {}: {}", partnerId, e.getMessage());
+                created.completeExceptionally(e);
+            } finally {
+                inFlight.remove(partnerId, created);
+            }
+        });
+        return created;
+    }
+
+    private Token requestToken(PartnerConfig partnerConfig) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("grant_type", "client_credentials");
+        if (properties.getClientAuthentication() == OAuthProperties.ClientAuthentication.BASIC) {
+            headers.setBasicAuth(partnerConfig.getClientId(), partnerConfig.getClientSecret());
+        } else {
+            form.add("client_id", partnerConfig.getClientId());
+            form.add("client_secret", partnerConfig.getClientSecret());
+        }
+
+        OAuthTokenResponse response = partnerHttpClients.restTemplateFor(partnerConfig.getPartnerId())
+                .postForObject(partnerConfig.getOauthUrl(), new HttpEntity<>(form, headers), OAuthTokenResponse.class);
+        if (response == null || response.getAccessToken() == null) {
+            throw new IllegalStateException("Token response from " + partnerConfig.getOauthUrl() + " has no access_token");
+        }
+
+        Duration lifetime = response.getExpiresIn() != null
+                ? Duration.ofSeconds(response.getExpiresIn())
+                : properties.getDefaultLifetime();
+        log.info("Obtained access token for partner {} valid for {}", partnerConfig.getPartnerId(), lifetime);
+
+        // Margins are capped relative to the lifetime so that short-lived tokens are still reused
+        Instant expiresAt = Instant.now().plus(lifetime);
+        Duration margin = min(properties.getExpiryMargin(), lifetime.dividedBy(4));
+        Duration refreshAhead = min(properties.getRefreshBeforeExpiry(), lifetime.dividedBy(2));
+        return new Token(response.getAccessToken(), expiresAt.minus(refreshAhead), expiresAt.minus(margin));
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static boolean usesOAuth(PartnerConfig partnerConfig) {
+        return partnerConfig.getOauthUrl() != null && !partnerConfig.getOauthUrl().isBlank();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
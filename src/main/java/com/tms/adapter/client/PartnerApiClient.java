@@ -1,41 +1,56 @@
 package com.tms.adapter.client;
 
+import com.tms.adapter.config.PipelineMetrics;
+import com.tms.adapter.dto.PaginationConfig;
 import com.tms.adapter.dto.PartnerConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PartnerApiClient {
 
-    private final RestTemplate restTemplate;
-    private final ConfigServiceClient configServiceClient;
+    private final PartnerHttpClients partnerHttpClients;
+    private final PartnerConfigCache partnerConfigCache;
+    private final PartnerPageFetcher pageFetcher;
+    private final ConditionalRequestStore conditionalRequestStore;
+    private final OAuthTokenManager oAuthTokenManager;
+    private final PartnerResilience partnerResilience;
+    private final PipelineMetrics pipelineMetrics;
 
-    public String fetchTheatreData(String partnerId) {
-        return fetchData(partnerId, "theatres", "theatre");
+    public <T> List<T> fetchTheatreData(String partnerId, PayloadHandler<T> handler) {
+        return fetchData(partnerId, "theatres", "theatre", handler);
     }
 
-    public String fetchHallData(String partnerId) {
-        return fetchData(partnerId, "halls", "hall");
+    public <T> List<T> fetchHallData(String partnerId, PayloadHandler<T> handler) {
+        return fetchData(partnerId, "halls", "hall", handler);
     }
 
-    public String fetchShowData(String partnerId) {
-        return fetchData(partnerId, "shows", "show");
+    public <T> List<T> fetchShowData(String partnerId, PayloadHandler<T> handler) {
+        return fetchData(partnerId, "shows", "show", handler);
     }
 
-    private String fetchData(String partnerId, String endpointKey, String dataType) {
+    /**
+     * Streams the response body into {@code handler} instead of reading it into a String.
+     * The handler runs while the connection is open, so the socket applies backpressure.
+     * Paged endpoints call the handler once per page and return one result per page.
+     */
+    private <T> List<T> fetchData(String partnerId, String endpointKey, String dataType, PayloadHandler<T> handler) {
         log.info("Fetching {} data for partner: {}", dataType, partnerId);
+        String entityType = dataType.toUpperCase(Locale.ROOT);
 
         try {
-            PartnerConfig partnerConfig = getPartnerConfig(partnerId);
+            PartnerConfig partnerConfig = partnerConfigCache.getPartnerConfig(partnerId);
             String endpoint = partnerConfig.getEndpoints().get(endpointKey);
 
             if (endpoint == null) {
@@ -44,31 +59,51 @@ public class PartnerApiClient {
 
             String apiUrl = partnerConfig.getBaseUrl() + endpoint;
 
-            HttpHeaders headers = new HttpHeaders();
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            String response = restTemplate.exchange(
-                    apiUrl,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            ).getBody();
+            PaginationConfig pagination = partnerConfig.getPagination();
+            if (pagination != null && pagination.appliesTo(endpointKey)) {
+                List<T> results = pageFetcher.fetchAll(partnerConfig, entityType, apiUrl, pagination, handler);
+                log.info("Successfully fetched {} data from {} ({} pages)", dataType, partnerId, results.size());
+                return results;
+            }
 
-            log.info("Successfully fetched {} data from {}", dataType, partnerId);
-            return response;
+            // Unpaged endpoints are requested conditionally; a 304 yields no results and skips staging
+            RestTemplate restTemplate = partnerHttpClients.restTemplateFor(partnerId);
+            List<T> results = oAuthTokenManager.withToken(partnerConfig, token -> partnerResilience.execute(partnerId,
+                    permit -> restTemplate.execute(
+                            apiUrl,
+                            HttpMethod.GET,
+                            request -> {
+                                restTemplate.acceptHeaderRequestCallback(String.class).doWithRequest(request);
+                                if (token != null) {
+                                    request.getHeaders().setBearerAuth(token);
+                                }
+                                conditionalRequestStore.applyTo(request.getHeaders(), partnerId, endpointKey);
+                            },
+                            response -> {
+                                permit.responded();
+                                pipelineMetrics.recordFetch(partnerId, entityType, permit.latencyNanos());
+                                if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                                    return List.<T>of();
+                                }
+                                T result = handler.handle(response.getBody());
+                                conditionalRequestStore.remember(partnerId, endpointKey, response.getHeaders());
+                                return List.of(result);
+                            }
+                    )));
+
+            if (results.isEmpty()) {
+                log.info("{} data from {} not modified since the last poll", dataType, partnerId);
+            } else {
+                log.info("Successfully fetched {} data from {}", dataType, partnerId);
+            }
+            return results;
 
-        } catch (Exception e) {
+        } catch (IOException e) {
+            log.error("Failed to fetch {} data from partner {}: {}", dataType, partnerId, e.getMessage());
+            throw new UncheckedIOException(e.getMessage(), e);
+        } catch (RuntimeException e) {
             log.error("Failed to fetch {} data from partner {}: {}", dataType, partnerId, e.getMessage());
             throw e;
         }
     }
-
-    private PartnerConfig getPartnerConfig(String partnerId) {
-        List<PartnerConfig> partners = configServiceClient.getActivePartners();
-
-        return partners.stream()
-                .filter(partner -> partner.getPartnerId().equals(partnerId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Partner not found: " + partnerId));
-    }
-}
\ No newline at end of file
+}
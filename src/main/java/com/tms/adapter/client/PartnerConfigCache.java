@@ -0,0 +1,155 @@
+package com.tms.adapter.client;
+
+import com.tms.adapter.config.PartnerConfigCacheProperties;
+import com.tms.adapter.config.PipelineMetrics;
+import com.tms.adapter.dto.PartnerConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Caches active partner configs indexed by partnerId.
+ *
+ * Reads never wait on the config service once the cache is warm: entries older than
+ * {@code refreshAfter} are refreshed in the background and the previous snapshot keeps being
+ * served until the refresh lands. Only a cold cache blocks on the first load.
+ */
+@Component
+@Slf4j
+public class PartnerConfigCache {
+
+    private record Snapshot(List<PartnerConfig> partners, Map<String, PartnerConfig> byId, Instant loadedAt) {
+    }
+
+    private final ConfigServiceClient configServiceClient;
+    private final PartnerConfigCacheProperties properties;
+    private final PipelineMetrics pipelineMetrics;
+    private final ExecutorService refreshExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("partner-config-refresh-"));
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Snapshot>> inFlightRefresh = new AtomicReference<>();
+
+    public PartnerConfigCache(ConfigServiceClient configServiceClient, PartnerConfigCacheProperties properties,
+                              PipelineMetrics pipelineMetrics) {
+        this.configServiceClient = configServiceClient;
+        this.properties = properties;
+        this.pipelineMetrics = pipelineMetrics;
+    }
+
+    public List<PartnerConfig> getActivePartners() {
+        return current().partners();
+    }
+
+    public PartnerConfig getPartnerConfig(String partnerId) {
+        PartnerConfig partnerConfig = current().byId().get(partnerId);
+        if (partnerConfig == null) {
+            throw new IllegalArgumentException("Partner not found: " + partnerId);
+        }
+        return partnerConfig;
+    }
+
+    /**
+     * Loads the partner list synchronously, e.g. at the start of a polling run.
+     * Falls back to the cached snapshot when the config service is unavailable.
+     */
+    public List<PartnerConfig> refreshNow() {
+        try {
+            return refreshAsync().join().partners();
+        } catch (Exception e) {
+            Snapshot cached = snapshot.get();
+            if (cached == null) {
+                throw e;
+            }
+            log.warn("Partner config refresh failed, using snapshot loaded at {}: {}", cached.loadedAt(), e.getMessage());
+            return cached.partners();
+        }
+    }
+
+    /**
+     * Marks the cached partner configs as outdated and revalidates them in the background.
+     */
+    public void invalidate() {
+        log.info("Partner config cache invalidated");
+        refreshAsync();
+    }
+
+    @Scheduled(fixedDelayString = "${cache.partner-config.check-interval-ms:60000}")
+    public void refreshAhead() {
+        Snapshot cached = snapshot.get();
+        if (cached != null && age(cached).compareTo(properties.getRefreshAfter()) >= 0) {
+            refreshAsync();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot cached = snapshot.get();
+        if (cached == null) {
+            return refreshAsync().join();
+        }
+
+        Duration age = age(cached);
+        if (age.compareTo(properties.getTtl()) >= 0) {
+            log.warn("Serving partner configs loaded {} ago while revalidating", age);
+        }
+        if (age.compareTo(properties.getRefreshAfter()) >= 0) {
+            refreshAsync();
+        }
+        return cached;
+    }
+
+    // Single-flight: concurrent callers share the refresh that is already running
+    private CompletableFuture<Snapshot> refreshAsync() {
+        CompletableFuture<Snapshot> created = new CompletableFuture<>();
+        CompletableFuture<Snapshot> existing = inFlightRefresh.compareAndExchange(null, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        refreshExecutor.execute(() -> {
+            try {
+                Snapshot loaded = load();
+                snapshot.set(loaded);
+                created.complete(loaded);
+            } catch (Exception e) {
+                log.error("Failed to refresh partner configs: {}", e.getMessage());
+                created.completeExceptionally(e);
+            } finally {
+                inFlightRefresh.set(null);
+            }
+        });
+        return created;
+    }
+
+    private Snapshot load() {
+        List<PartnerConfig> partners = List.copyOf(pipelineMetrics.timeConfigService("active-partners",
+                configServiceClient::getActivePartners));
+        Map<String, PartnerConfig> byId = new LinkedHashMap<>();
+        for (PartnerConfig partner : partners) {
+            byId.put(partner.getPartnerId(), partner);
+        }
+        log.info("Loaded {} active partner configs", partners.size());
+        return new Snapshot(partners, Map.copyOf(byId), Instant.now());
+    }
+
+    private static Duration age(Snapshot cached) {
+        return Duration.between(cached.loadedAt(), Instant.now());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,185 @@
+package com.tms.adapter.client;
+
+import com.tms.adapter.config.PartnerApiProperties;
+import com.tms.adapter.config.PartnerHttpConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.Configurable;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Hands out one {@link RestTemplate} per partner, configured with that partner's timeouts.
+ *
+ * HTTP/1.1 partners share the pooled Apache client; the templates differ only in request
+ * configuration, so connections are reused across partners on the same host. Connect timeouts
+ * belong to the pooled connections, so they are resolved per target host; partners sharing a host
+ * get the longest of their connect timeouts. Partners flagged for HTTP/2 get a JDK client, which
+ * negotiates h2 via ALPN and falls back to HTTP/1.1.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PartnerHttpClients {
+
+    private final CloseableHttpClient partnerHttpClient;
+    private final PoolingHttpClientConnectionManager partnerConnectionManager;
+    private final PartnerApiProperties properties;
+
+    private final Map<String, RestTemplate> templates = new ConcurrentHashMap<>();
+    // Connection settings per target host, registered as partners send requests to it
+    private final Map<HttpHost, ConnectionConfig> hostConnectionConfigs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerConnectionConfigs() {
+        ConnectionConfig defaults = PartnerHttpConfig.connectionConfig(properties.getHttp());
+        partnerConnectionManager.setConnectionConfigResolver(route ->
+                hostConnectionConfigs.getOrDefault(normalize(route.getTargetHost()), defaults));
+    }
+
+    public RestTemplate restTemplateFor(String partnerId) {
+        return templates.computeIfAbsent(partnerId, this::createRestTemplate);
+    }
+
+    private RestTemplate createRestTemplate(String partnerId) {
+        PartnerApiProperties.Http.PartnerHttp http = properties.httpFor(partnerId);
+
+        if (Boolean.TRUE.equals(http.getHttp2())) {
+            log.info("Partner {} uses the HTTP/2 client (connect {}, read {})",
+                    partnerId, http.getConnectTimeout(), http.getReadTimeout());
+            return createHttp2RestTemplate(http);
+        }
+
+        // Partner read timeout on top of the client defaults (keep-alive etc.), set per request context
+        RequestConfig requestConfig = RequestConfig.copy(((Configurable) partnerHttpClient).getConfig())
+                .setResponseTimeout(Timeout.of(http.getReadTimeout()))
+                .build();
+        Timeout connectTimeout = Timeout.of(http.getConnectTimeout());
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(partnerHttpClient);
+        factory.setHttpContextFactory((method, uri) -> {
+            registerConnectTimeout(uri, connectTimeout);
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(requestConfig);
+            return context;
+        });
+        return new RestTemplate(factory);
+    }
+
+    /**
+     * Makes connections to the request's host wait at least {@code connectTimeout}.
+     */
+    private void registerConnectTimeout(URI uri, Timeout connectTimeout) {
+        hostConnectionConfigs.compute(normalize(HttpHost.create(uri)), (host, current) ->
+                current != null && current.getConnectTimeout().compareTo(connectTimeout) >= 0 ? current
+                        : ConnectionConfig.copy(PartnerHttpConfig.connectionConfig(properties.getHttp()))
+                                .setConnectTimeout(connectTimeout)
+                                .build());
+    }
+
+    /**
+     * Fills in the scheme's default port, as the route planner does for route target hosts.
+     */
+    private static HttpHost normalize(HttpHost host) {
+        return host.getPort() > 0 ? host
+                : new HttpHost(host.getSchemeName(), host.getHostName(), DefaultSchemePortResolver.INSTANCE.resolve(host));
+    }
+
+    private RestTemplate createHttp2RestTemplate(PartnerApiProperties.Http.PartnerHttp http) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(http.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(client);
+        factory.setReadTimeout(http.getReadTimeout());
+
+        RestTemplate restTemplate = new RestTemplate(factory);
+        if (properties.getHttp().isCompression()) {
+            // The JDK client does not negotiate compression on its own
+            restTemplate.getInterceptors().add(decompressingInterceptor());
+        }
+        return restTemplate;
+    }
+
+    private static ClientHttpRequestInterceptor decompressingInterceptor() {
+        return (request, body, execution) -> {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+            ClientHttpResponse response = execution.execute(request, body);
+            String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+            if ("gzip".equalsIgnoreCase(encoding) || "deflate".equalsIgnoreCase(encoding)) {
+                return new DecompressedResponse(response, encoding.toLowerCase());
+            }
+            return response;
+        };
+    }
+
+    private static final class DecompressedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final String encoding;
+        private final HttpHeaders headers;
+        private InputStream body;
+
+        DecompressedResponse(ClientHttpResponse delegate, String encoding) {
+            this.delegate = delegate;
+            this.encoding = encoding;
+            this.headers = new HttpHeaders();
+            this.headers.putAll(delegate.getHeaders());
+            // The body handed out is decoded, so its encoding and length no longer apply
+            this.headers.remove(HttpHeaders.CONTENT_ENCODING);
+            this.headers.remove(HttpHeaders.CONTENT_LENGTH);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                InputStream raw = delegate.getBody();
+                body = "gzip".equals(encoding) ? new GZIPInputStream(raw, 8192) : new InflaterInputStream(raw);
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
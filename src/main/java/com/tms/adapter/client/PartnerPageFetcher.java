@@ -0,0 +1,264 @@
+package com.tms.adapter.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.adapter.config.PartnerApiProperties;
+import com.tms.adapter.config.PipelineMetrics;
+import com.tms.adapter.dto.PaginationConfig;
+import com.tms.adapter.dto.PartnerConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fetches a paged partner listing, downloading the next pages while the current one is handled.
+ *
+ * A background task walks the pages and puts them on a queue bounded by the prefetch depth; the
+ * calling thread takes them off and runs the handler. Each page reaches the handler as a plain
+ * JSON array, unwrapped from {@code itemsPointer} when the partner wraps its items.
+ */
+@Component
+@Slf4j
+public class PartnerPageFetcher {
+
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>\\s*;[^,]*rel=\"?next\"?");
+
+    private final PartnerHttpClients partnerHttpClients;
+    private final OAuthTokenManager oAuthTokenManager;
+    private final PartnerResilience partnerResilience;
+    private final PipelineMetrics pipelineMetrics;
+    private final ObjectMapper objectMapper;
+    private final PartnerApiProperties properties;
+    private final ExecutorService prefetchExecutor =
+            Executors.newCachedThreadPool(new CustomizableThreadFactory("page-prefetch-"));
+
+    public PartnerPageFetcher(PartnerHttpClients partnerHttpClients, OAuthTokenManager oAuthTokenManager,
+                              PartnerResilience partnerResilience, PipelineMetrics pipelineMetrics,
+                              ObjectMapper objectMapper, PartnerApiProperties properties) {
+        this.partnerHttpClients = partnerHttpClients;
+        this.oAuthTokenManager = oAuthTokenManager;
+        this.partnerResilience = partnerResilience;
+        this.pipelineMetrics = pipelineMetrics;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public <T> List<T> fetchAll(PartnerConfig partnerConfig, String entityType, String apiUrl,
+                                PaginationConfig pagination, PayloadHandler<T> handler) throws IOException {
+        String partnerId = partnerConfig.getPartnerId();
+        int prefetchDepth = Math.max(1, pagination.getPrefetchDepth() != null
+                ? pagination.getPrefetchDepth() : properties.getPrefetchDepth());
+        BlockingQueue<Page> pages = new ArrayBlockingQueue<>(prefetchDepth);
+        Future<?> prefetch = prefetchExecutor.submit(() -> walkPages(partnerConfig, entityType, apiUrl, pagination, pages));
+
+        List<T> results = new ArrayList<>();
+        try {
+            while (true) {
+                Page page = pages.take();
+                if (page.error() != null) {
+                    throw page.error();
+                }
+                if (page.items() == null) {
+                    break;
+                }
+                if (page.itemCount() > 0) {
+                    results.add(handler.handle(new ByteArrayInputStream(page.items())));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching pages from partner " + partnerId, e);
+        } finally {
+            // Stops the walk early if the handler failed or the poll was cancelled
+            prefetch.cancel(true);
+        }
+
+        log.info("Fetched {} non-empty pages from partner {}", results.size(), partnerId);
+        return results;
+    }
+
+    private void walkPages(PartnerConfig partnerConfig, String entityType, String apiUrl,
+                           PaginationConfig pagination, BlockingQueue<Page> pages) {
+        String partnerId = partnerConfig.getPartnerId();
+        try {
+            int pageNumber = pagination.getFirstPage();
+            long offset = 0;
+            URI next = firstPageUri(apiUrl, pagination);
+
+            for (int fetched = 0; next != null; fetched++) {
+                if (fetched >= properties.getMaxPages()) {
+                    log.warn("Stopping after {} pages from partner {}: page limit reached", fetched, partnerId);
+                    break;
+                }
+
+                Page page = fetchPage(partnerConfig, entityType, next, pagination);
+                pages.put(page);
+
+                boolean lastPage = page.itemCount() == 0;
+                switch (pagination.getStrategy()) {
+                    case PAGE -> {
+                        lastPage |= page.itemCount() < pagination.getPageSize();
+                        pageNumber++;
+                        next = pageUri(apiUrl, pagination, pagination.getPageParam(), pageNumber, pagination.getSizeParam());
+                    }
+                    case OFFSET -> {
+                        lastPage |= page.itemCount() < pagination.getPageSize();
+                        offset += page.itemCount();
+                        next = pageUri(apiUrl, pagination, pagination.getOffsetParam(), offset, pagination.getLimitParam());
+                    }
+                    case CURSOR -> {
+                        lastPage |= page.nextCursor() == null;
+                        next = lastPage ? null : cursorUri(apiUrl, pagination, page.nextCursor());
+                    }
+                    case LINK_HEADER -> {
+                        lastPage |= page.nextLink() == null;
+                        next = lastPage ? null : next.resolve(page.nextLink());
+                    }
+                    default -> lastPage = true;
+                }
+                if (lastPage) {
+                    next = null;
+                }
+            }
+            pages.put(Page.END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            IOException error = e instanceof IOException io ? io
+                    : new IOException("Failed to fetch page from partner " + partnerId + ": " + e.getMessage(), e);
+            try {
+                // If the consumer is gone the walk has been cancelled, which interrupts this put
+                pages.put(Page.failed(error));
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Page fetchPage(PartnerConfig partnerConfig, String entityType, URI uri, PaginationConfig pagination) {
+        log.debug("Fetching page {}", uri);
+        RestTemplate restTemplate = partnerHttpClients.restTemplateFor(partnerConfig.getPartnerId());
+        return oAuthTokenManager.withToken(partnerConfig, token -> partnerResilience.executeIdempotent(
+                partnerConfig.getPartnerId(),
+                permit -> restTemplate.execute(uri, HttpMethod.GET,
+                        request -> {
+                            restTemplate.acceptHeaderRequestCallback(String.class).doWithRequest(request);
+                            if (token != null) {
+                                request.getHeaders().setBearerAuth(token);
+                            }
+                        },
+                        response -> {
+                            permit.responded();
+                            pipelineMetrics.recordFetch(partnerConfig.getPartnerId(), entityType, permit.latencyNanos());
+                            byte[] body = response.getBody().readAllBytes();
+                            String nextLink = nextLink(response.getHeaders());
+                            return parsePage(body, pagination, nextLink);
+                        })));
+    }
+
+    private Page parsePage(byte[] body, PaginationConfig pagination, String nextLink) throws IOException {
+        String itemsPointer = pagination.getItemsPointer();
+
+        if (itemsPointer == null || itemsPointer.isEmpty()) {
+            // Root array: count the items without building a tree and pass the bytes on unchanged
+            try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("Invalid page format - expected JSON array");
+                }
+                int count = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    parser.skipChildren();
+                    count++;
+                }
+                return new Page(body, count, null, nextLink, null);
+            }
+        }
+
+        JsonNode root = objectMapper.readTree(body);
+        JsonNode items = root.at(itemsPointer);
+        if (!items.isArray()) {
+            throw new IllegalArgumentException("Invalid page format - no array at " + itemsPointer);
+        }
+        JsonNode cursor = root.at(pagination.getCursorPointer());
+        String nextCursor = cursor.isValueNode() && !cursor.isNull() && !cursor.asText().isEmpty()
+                ? cursor.asText() : null;
+        return new Page(objectMapper.writeValueAsBytes(items), items.size(), nextCursor, nextLink, null);
+    }
+
+    private static URI firstPageUri(String apiUrl, PaginationConfig pagination) {
+        return switch (pagination.getStrategy()) {
+            case PAGE -> pageUri(apiUrl, pagination, pagination.getPageParam(), pagination.getFirstPage(),
+                    pagination.getSizeParam());
+            case OFFSET -> pageUri(apiUrl, pagination, pagination.getOffsetParam(), 0, pagination.getLimitParam());
+            case CURSOR, LINK_HEADER -> pageSizeOnly(apiUrl, pagination);
+            default -> URI.create(apiUrl);
+        };
+    }
+
+    private static URI pageUri(String apiUrl, PaginationConfig pagination, String positionParam, long position,
+                               String sizeParam) {
+        return UriComponentsBuilder.fromHttpUrl(apiUrl)
+                .replaceQueryParam(positionParam, position)
+                .replaceQueryParam(sizeParam, pagination.getPageSize())
+                .build().toUri();
+    }
+
+    private static URI cursorUri(String apiUrl, PaginationConfig pagination, String cursor) {
+        // Expanded as a variable so that reserved characters in opaque tokens are encoded too
+        return UriComponentsBuilder.fromHttpUrl(apiUrl)
+                .replaceQueryParam(pagination.getSizeParam(), pagination.getPageSize())
+                .replaceQueryParam(pagination.getCursorParam(), "{cursor}")
+                .encode()
+                .buildAndExpand(cursor)
+                .toUri();
+    }
+
+    private static URI pageSizeOnly(String apiUrl, PaginationConfig pagination) {
+        return UriComponentsBuilder.fromHttpUrl(apiUrl)
+                .replaceQueryParam(pagination.getSizeParam(), pagination.getPageSize())
+                .build().toUri();
+    }
+
+    private static String nextLink(HttpHeaders headers) {
+        for (String link : headers.getOrEmpty(HttpHeaders.LINK)) {
+            Matcher matcher = NEXT_LINK.matcher(link);
+            if (matcher.find()) {
+                return matcher.group(1);
+            }
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    private record Page(byte[] items, int itemCount, String nextCursor, String nextLink, IOException error) {
+        static final Page END = new Page(null, 0, null, null, null);
+
+        static Page failed(IOException error) {
+            return new Page(null, 0, null, null, error);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.tms.adapter.client;
+
+import com.tms.adapter.config.PartnerApiProperties;
+import com.tms.adapter.dto.PartnerLimitStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Per-partner client-side throttling: a token bucket for the request rate plus a concurrency limit.
+ *
+ * Both adapt AIMD-style. While responses stay fast they grow additively (about one step per
+ * limit's worth of successful requests); on 429/503, timeouts or latency well above the partner's
+ * baseline they are cut multiplicatively, at most once per round trip. A Retry-After header
+ * holds back all requests to the partner until it has passed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PartnerRateLimiter {
+
+    private static final double RECENT_WEIGHT = 0.3;
+    private static final double BASELINE_DRIFT = 0.01;
+    private static final int WARMUP_SAMPLES = 5;
+
+    /**
+     * One admitted request. Call {@link #responded()} once the response headers are in, so that
+     * time spent consuming the body is not counted as partner latency.
+     */
+    public static final class Permit {
+        private final long startedAt = System.nanoTime();
+        private long respondedAt;
+
+        public void responded() {
+            if (respondedAt == 0) {
+                respondedAt = System.nanoTime();
+            }
+        }
+
+        public boolean hasResponded() {
+            return respondedAt != 0;
+        }
+
+        public long latencyNanos() {
+            return (respondedAt != 0 ? respondedAt : System.nanoTime()) - startedAt;
+        }
+    }
+
+    private final PartnerApiProperties properties;
+
+    private final Map<String, PartnerLimit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code call} once the partner's rate and concurrency limits admit it, and feeds the
+     * outcome back into the limits.
+     */
+    public <T> T execute(String partnerId, Function<Permit, T> call) {
+        if (!properties.getRateLimit().isEnabled()) {
+            return call.apply(new Permit());
+        }
+
+        PartnerLimit limit = limits.computeIfAbsent(partnerId, PartnerLimit::new);
+        try {
+            limit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestClientException("Interrupted while waiting for the rate limit of partner " + partnerId, e);
+        }
+
+        Permit permit = new Permit();
+        try {
+            T result = call.apply(permit);
+            limit.onSuccess(permit.latencyNanos());
+            return result;
+        } catch (HttpStatusCodeException e) {
+            int status = e.getStatusCode().value();
+            if (status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+                limit.onOverload("HTTP " + status, retryAfter(e.getResponseHeaders()));
+            }
+            throw e;
+        } catch (ResourceAccessException e) {
+            if (e.getCause() instanceof SocketTimeoutException || e.getCause() instanceof HttpTimeoutException) {
+                limit.onOverload("timeout", null);
+            }
+            throw e;
+        } finally {
+            limit.release();
+        }
+    }
+
+    public List<PartnerLimitStatus> status() {
+        return limits.values().stream()
+                .map(PartnerLimit::status)
+                .sorted((a, b) -> a.getPartnerId().compareTo(b.getPartnerId()))
+                .toList();
+    }
+
+    /**
+     * Retry-After as delay-seconds or an HTTP date, capped to {@code maxRetryAfter}.
+     */
+    private Duration retryAfter(HttpHeaders headers) {
+        String value = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        Duration delay;
+        try {
+            delay = Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                Instant at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                delay = Duration.between(Instant.now(), at);
+            } catch (DateTimeParseException invalid) {
+                log.debug("Ignoring unparseable Retry-After '{}'", value);
+                return null;
+            }
+        }
+
+        Duration max = properties.getRateLimit().getMaxRetryAfter();
+        return delay.isNegative() ? Duration.ZERO : delay.compareTo(max) > 0 ? max : delay;
+    }
+
+    private final class PartnerLimit {
+        private final String partnerId;
+        private final PartnerApiProperties.RateLimit config;
+        private final double maxRate;
+        private final int maxConcurrency;
+
+        private double rate;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        private double concurrency;
+        private int inFlight;
+
+        private double baselineNanos;
+        private double recentNanos;
+        private long samples;
+        private long lastDecreaseAt;
+        private long throttled;
+
+        private long blockedUntilNanos;
+        private Instant blockedUntil;
+
+        PartnerLimit(String partnerId) {
+            this.partnerId = partnerId;
+            this.config = properties.getRateLimit();
+            PartnerApiProperties.RateLimit.PartnerRateLimit resolved = properties.rateLimitFor(partnerId);
+            this.maxRate = resolved.getMaxRequestsPerSecond();
+            this.maxConcurrency = resolved.getMaxConcurrency();
+            this.rate = maxRate;
+            this.tokens = config.getBurst();
+            this.concurrency = Math.min(config.getInitialConcurrency(), maxConcurrency);
+            this.blockedUntilNanos = refilledAt;
+        }
+
+        synchronized void acquire() throws InterruptedException {
+            while (true) {
+                long now = System.nanoTime();
+                long wait = blockedUntilNanos - now;
+                if (wait <= 0) {
+                    refill(now);
+                    if (tokens >= 1 && inFlight < (int) concurrency) {
+                        tokens -= 1;
+                        inFlight++;
+                        return;
+                    }
+                    // Out of tokens: sleep until the next one; out of slots: wait for a release
+                    wait = tokens < 1 ? (long) ((1 - tokens) / rate * TimeUnit.SECONDS.toNanos(1)) : 0;
+                }
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, wait);
+                } else {
+                    wait();
+                }
+            }
+        }
+
+        synchronized void release() {
+            inFlight--;
+            notifyAll();
+        }
+
+        synchronized void onSuccess(long latencyNanos) {
+            samples++;
+            recentNanos = recentNanos == 0 ? latencyNanos : recentNanos + RECENT_WEIGHT * (latencyNanos - recentNanos);
+            // The baseline follows improvements at once but creeps up only slowly
+            baselineNanos = baselineNanos == 0 || latencyNanos < baselineNanos
+                    ? latencyNanos
+                    : baselineNanos + BASELINE_DRIFT * (latencyNanos - baselineNanos);
+
+            if (samples > WARMUP_SAMPLES && recentNanos > config.getLatencyTolerance() * baselineNanos) {
+                decrease("latency " + millis(recentNanos) + "ms vs baseline " + millis(baselineNanos) + "ms");
+                return;
+            }
+
+            // Only grow a limit that is actually being used
+            if (inFlight >= (int) concurrency) {
+                concurrency = Math.min(maxConcurrency, concurrency + 1 / concurrency);
+            }
+            rate = Math.min(maxRate, rate + Math.min(1, 1 / rate));
+        }
+
+        synchronized void onOverload(String reason, Duration retryAfter) {
+            throttled++;
+            if (retryAfter != null && !retryAfter.isZero()) {
+                long until = System.nanoTime() + retryAfter.toNanos();
+                if (until - blockedUntilNanos > 0) {
+                    blockedUntilNanos = until;
+                    blockedUntil = Instant.now().plus(retryAfter);
+                    log.warn("Partner {} asked to retry after {}, holding requests until {}", partnerId, retryAfter, blockedUntil);
+                }
+            }
+            decrease(reason);
+        }
+
+        // Responses already in flight when the partner pushed back would otherwise cut the limits repeatedly
+        private void decrease(String reason) {
+            long now = System.nanoTime();
+            long roundTrip = Math.max((long) recentNanos, TimeUnit.MILLISECONDS.toNanos(100));
+            if (lastDecreaseAt != 0 && now - lastDecreaseAt < roundTrip) {
+                return;
+            }
+            lastDecreaseAt = now;
+
+            concurrency = Math.max(config.getMinConcurrency(), concurrency * config.getBackoffRatio());
+            rate = Math.max(config.getMinRequestsPerSecond(), rate * config.getBackoffRatio());
+            tokens = Math.min(tokens, 1);
+            log.info("Backing off partner {} ({}): concurrency {}, {} requests/s",
+                    partnerId, reason, (int) concurrency, String.format("%.2f", rate));
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(config.getBurst(), tokens + (now - refilledAt) * rate / TimeUnit.SECONDS.toNanos(1));
+            refilledAt = now;
+        }
+
+        synchronized PartnerLimitStatus status() {
+            boolean blocked = blockedUntilNanos - System.nanoTime() > 0;
+            return PartnerLimitStatus.builder()
+                    .partnerId(partnerId)
+                    .requestsPerSecond(Math.round(rate * 100) / 100.0)
+                    .concurrencyLimit((int) concurrency)
+                    .inFlight(inFlight)
+                    .baselineLatencyMs(millis(baselineNanos))
+                    .recentLatencyMs(millis(recentNanos))
+                    .throttledResponses(throttled)
+                    .blockedUntil(blocked ? blockedUntil : null)
+                    .build();
+        }
+    }
+
+    private static long millis(double nanos) {
+        return TimeUnit.NANOSECONDS.toMillis((long) nanos);
+    }
+}
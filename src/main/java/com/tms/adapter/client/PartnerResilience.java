@@ -0,0 +1,316 @@
+package com.tms.adapter.client;
+
+import com.tms.adapter.config.PartnerApiProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Circuit breaking, retries and hedging for partner HTTP calls, on top of {@link PartnerRateLimiter}.
+ *
+ * A partner's circuit opens after {@code failureThreshold} consecutive failed attempts (connection
+ * errors, timeouts, 5xx) and fails calls immediately until {@code openDuration} has passed; then a
+ * single trial call decides whether it closes again. Transient failures are retried with
+ * full-jitter exponential backoff within a time budget. Calls without side effects may also be
+ * hedged: a second copy is sent once the first is slower than the partner's recent p95.
+ */
+@Component
+@Slf4j
+public class PartnerResilience {
+
+    private static final Set<Integer> RETRYABLE_SERVER_ERRORS = Set.of(502, 503, 504);
+    private static final int LATENCY_WINDOW = 128;
+
+    private final PartnerRateLimiter partnerRateLimiter;
+    private final PartnerApiProperties properties;
+    private final ThreadPoolExecutor hedgeExecutor;
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    public PartnerResilience(PartnerRateLimiter partnerRateLimiter, PartnerApiProperties properties) {
+        this.partnerRateLimiter = partnerRateLimiter;
+        this.properties = properties;
+        // Bounded: when all hedge threads are busy, calls simply run without a hedge
+        this.hedgeExecutor = new ThreadPoolExecutor(0, properties.getResilience().getMaxHedgeThreads(),
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), new CustomizableThreadFactory("partner-hedge-"));
+    }
+
+    /**
+     * For calls that consume the response as it streams in: only failures before the response
+     * arrived are retried, so a partly consumed body is never processed twice.
+     */
+    public <T> T execute(String partnerId, Function<PartnerRateLimiter.Permit, T> call) {
+        return run(partnerId, call, false);
+    }
+
+    /**
+     * For calls without side effects, such as buffered page fetches: any transient failure is
+     * retried and the call may be hedged.
+     */
+    public <T> T executeIdempotent(String partnerId, Function<PartnerRateLimiter.Permit, T> call) {
+        return run(partnerId, call, true);
+    }
+
+    private <T> T run(String partnerId, Function<PartnerRateLimiter.Permit, T> call, boolean idempotent) {
+        PartnerApiProperties.Resilience config = properties.getResilience();
+        CircuitBreaker breaker = breakers.computeIfAbsent(partnerId, CircuitBreaker::new);
+        long deadline = System.nanoTime() + config.getRetryBudget().toNanos();
+
+        for (int attempt = 1; ; attempt++) {
+            breaker.acquire();
+            boolean[] responded = new boolean[1];
+            Function<PartnerRateLimiter.Permit, T> tracked = permit -> {
+                try {
+                    return call.apply(permit);
+                } finally {
+                    responded[0] |= permit.hasResponded();
+                }
+            };
+
+            RuntimeException failure;
+            CallOutcome outcome = CallOutcome.LOCAL;
+            try {
+                T result = idempotent && config.isHedging()
+                        ? hedged(partnerId, tracked)
+                        : partnerRateLimiter.execute(partnerId, tracked);
+                outcome = CallOutcome.ANSWERED;
+                return result;
+            } catch (RuntimeException e) {
+                outcome = outcomeOf(e, responded[0]);
+                failure = e;
+            } finally {
+                // Also reached for Errors, so a trial call always gives back its slot
+                breaker.onResult(outcome);
+            }
+
+            if (!isRetryable(failure, idempotent || !responded[0]) || attempt >= config.getMaxAttempts()) {
+                throw failure;
+            }
+            long backoff = backoffNanos(attempt);
+            if (System.nanoTime() + backoff - deadline > 0) {
+                log.warn("Not retrying partner {} after attempt {}: retry budget of {} spent",
+                        partnerId, attempt, config.getRetryBudget());
+                throw failure;
+            }
+            log.warn("Attempt {} for partner {} failed ({}), retrying in {}ms",
+                    attempt, partnerId, failure.getMessage(), TimeUnit.NANOSECONDS.toMillis(backoff));
+            try {
+                TimeUnit.NANOSECONDS.sleep(backoff);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                throw failure;
+            }
+        }
+    }
+
+    private <T> T hedged(String partnerId, Function<PartnerRateLimiter.Permit, T> call) {
+        LatencyWindow window = latencies.computeIfAbsent(partnerId, id -> new LatencyWindow());
+        Duration delay = window.hedgeDelay();
+        if (delay == null) {
+            return timed(window, partnerId, call);
+        }
+
+        CompletableFuture<T> primary;
+        try {
+            primary = CompletableFuture.supplyAsync(() -> timed(window, partnerId, call), hedgeExecutor);
+        } catch (RejectedExecutionException busy) {
+            return timed(window, partnerId, call);
+        }
+
+        try {
+            try {
+                return primary.get(delay.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException slow) {
+                log.debug("Hedging request to partner {} after {}ms", partnerId, delay.toMillis());
+            }
+
+            CompletableFuture<T> hedge;
+            try {
+                hedge = CompletableFuture.supplyAsync(() -> timed(window, partnerId, call), hedgeExecutor);
+            } catch (RejectedExecutionException busy) {
+                return primary.get();
+            }
+            // The slower copy is abandoned; it ends within the partner's read timeout
+            return firstSuccess(primary, hedge).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause
+                    : new RestClientException("Request to partner " + partnerId + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestClientException("Interrupted while waiting for partner " + partnerId, e);
+        }
+    }
+
+    private <T> T timed(LatencyWindow window, String partnerId, Function<PartnerRateLimiter.Permit, T> call) {
+        long start = System.nanoTime();
+        T result = partnerRateLimiter.execute(partnerId, call);
+        window.add(System.nanoTime() - start);
+        return result;
+    }
+
+    private static <T> CompletableFuture<T> firstSuccess(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> candidate : List.of(first, second)) {
+            candidate.whenComplete((value, error) -> {
+                if (error == null) {
+                    winner.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                }
+            });
+        }
+        return winner;
+    }
+
+    private long backoffNanos(int attempt) {
+        PartnerApiProperties.Resilience config = properties.getResilience();
+        long ceiling = Math.min(config.getMaxBackoff().toNanos(),
+                config.getInitialBackoff().toNanos() << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Connection errors, timeouts and 5xx say the partner is unhealthy; any other HTTP status, or a
+     * failure after the response arrived, says it answered. Anything else, such as a local rate
+     * limit rejection, says nothing about the partner.
+     */
+    private static CallOutcome outcomeOf(RuntimeException e, boolean responded) {
+        if (e instanceof ResourceAccessException || e instanceof HttpServerErrorException) {
+            return CallOutcome.PARTNER_FAILURE;
+        }
+        return responded || e instanceof RestClientResponseException ? CallOutcome.ANSWERED : CallOutcome.LOCAL;
+    }
+
+    private static boolean isRetryable(RuntimeException e, boolean safeToRepeat) {
+        if (!safeToRepeat || e instanceof PartnerUnavailableException) {
+            return false;
+        }
+        if (e instanceof HttpServerErrorException server) {
+            return RETRYABLE_SERVER_ERRORS.contains(server.getStatusCode().value());
+        }
+        return e instanceof HttpClientErrorException.TooManyRequests || e instanceof ResourceAccessException;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    private enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    private enum CallOutcome { ANSWERED, PARTNER_FAILURE, LOCAL }
+
+    private final class CircuitBreaker {
+        private final String partnerId;
+        private CircuitState state = CircuitState.CLOSED;
+        private int consecutiveFailures;
+        private long openedAt;
+        private boolean trialInFlight;
+
+        CircuitBreaker(String partnerId) {
+            this.partnerId = partnerId;
+        }
+
+        synchronized void acquire() {
+            Duration openDuration = properties.getResilience().getOpenDuration();
+            if (state == CircuitState.OPEN) {
+                long remaining = openDuration.toNanos() - (System.nanoTime() - openedAt);
+                if (remaining > 0) {
+                    throw new PartnerUnavailableException("Circuit for partner " + partnerId + " is open for another "
+                            + TimeUnit.NANOSECONDS.toSeconds(remaining) + "s");
+                }
+                state = CircuitState.HALF_OPEN;
+                trialInFlight = false;
+            }
+            if (state == CircuitState.HALF_OPEN) {
+                if (trialInFlight) {
+                    throw new PartnerUnavailableException("Circuit for partner " + partnerId
+                            + " is half-open, trial call in progress");
+                }
+                trialInFlight = true;
+            }
+        }
+
+        /**
+         * Only an answer from the partner closes the circuit; a call that never reached it just
+         * frees the trial slot, leaving a half-open circuit for the next call to try.
+         */
+        synchronized void onResult(CallOutcome outcome) {
+            if (outcome == CallOutcome.LOCAL) {
+                trialInFlight = false;
+                return;
+            }
+            if (outcome == CallOutcome.ANSWERED) {
+                if (state != CircuitState.CLOSED) {
+                    log.info("Circuit for partner {} closed", partnerId);
+                }
+                state = CircuitState.CLOSED;
+                consecutiveFailures = 0;
+                trialInFlight = false;
+                return;
+            }
+
+            consecutiveFailures++;
+            if (state == CircuitState.HALF_OPEN
+                    || (state == CircuitState.CLOSED && consecutiveFailures >= properties.getResilience().getFailureThreshold())) {
+                log.warn("Circuit for partner {} opened after {} consecutive failures, failing fast for {}",
+                        partnerId, consecutiveFailures, properties.getResilience().getOpenDuration());
+                state = CircuitState.OPEN;
+                openedAt = System.nanoTime();
+                trialInFlight = false;
+            }
+        }
+    }
+
+    private final class LatencyWindow {
+        private final long[] samples = new long[LATENCY_WINDOW];
+        private int count;
+        private int next;
+
+        synchronized void add(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        /**
+         * The recent p95, or null while there are too few samples to hedge on.
+         */
+        synchronized Duration hedgeDelay() {
+            PartnerApiProperties.Resilience config = properties.getResilience();
+            if (count < config.getHedgeMinSamples()) {
+                return null;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            Duration p95 = Duration.ofNanos(sorted[(int) Math.ceil(count * 0.95) - 1]);
+            return p95.compareTo(config.getHedgeMinDelay()) < 0 ? config.getHedgeMinDelay() : p95;
+        }
+    }
+}
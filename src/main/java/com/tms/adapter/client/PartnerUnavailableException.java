@@ -0,0 +1,15 @@
+package com.tms.adapter.client;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown instead of calling a partner whose circuit is open.
+ */
+public class PartnerUnavailableException extends RestClientException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PartnerUnavailableException(String message) {
+        super(message);
+    }
+}
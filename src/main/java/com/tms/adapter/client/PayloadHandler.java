@@ -0,0 +1,13 @@
+package com.tms.adapter.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Consumes a partner response body while the HTTP connection is still open.
+ */
+@FunctionalInterface
+public interface PayloadHandler<T> {
+
+    T handle(InputStream body) throws IOException;
+}
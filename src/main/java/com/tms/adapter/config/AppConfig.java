@@ -1,20 +1,28 @@
 package com.tms.adapter.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class AppConfig {
 
+    // Partner calls use PartnerHttpClients; this template shares the same connection pool
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient partnerHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(partnerHttpClient));
     }
 
     @Bean
     public ObjectMapper objectMapper() {
-        return new ObjectMapper();
+        // This bean also backs the MVC message converters, which must serialize java.time values
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     }
 }
\ No newline at end of file
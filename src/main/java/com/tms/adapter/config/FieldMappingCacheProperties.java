@@ -0,0 +1,14 @@
+package com.tms.adapter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "cache.field-mappings")
+public class FieldMappingCacheProperties {
+
+    // Compiled plans older than this are recompiled on next use
+    private Duration ttl = Duration.ofHours(1);
+}
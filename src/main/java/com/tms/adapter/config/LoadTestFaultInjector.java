@@ -0,0 +1,75 @@
+package com.tms.adapter.config;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WireMock extension that randomly turns synthetic partner responses into 503s and 429s.
+ * Only applies to stubs that name it, so the config service stand-in is never affected.
+ */
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class LoadTestFaultInjector extends ResponseDefinitionTransformer {
+
+    public static final String NAME = "load-test-faults";
+
+    private final LoadTestProperties properties;
+
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong throttles = new AtomicLong();
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition,
+                                        FileSource files, Parameters parameters) {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < properties.getErrorRate()) {
+            errors.incrementAndGet();
+            return ResponseDefinitionBuilder.like(responseDefinition).but()
+                    .withStatus(503)
+                    .withBody("{\"error\":\"injected failure\"}")
+                    .build();
+        }
+        if (roll < properties.getErrorRate() + properties.getThrottleRate()) {
+            throttles.incrementAndGet();
+            return ResponseDefinitionBuilder.like(responseDefinition).but()
+                    .withStatus(429)
+                    .withHeaders(new HttpHeaders(
+                            new HttpHeader("Content-Type", "application/json"),
+                            new HttpHeader("Retry-After", String.valueOf(properties.getRetryAfter().toSeconds()))))
+                    .withBody("{\"error\":\"injected throttle\"}")
+                    .build();
+        }
+        return responseDefinition;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    public long injectedErrors() {
+        return errors.get();
+    }
+
+    public long injectedThrottles() {
+        return throttles.get();
+    }
+}
@@ -0,0 +1,58 @@
+package com.tms.adapter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Synthetic partners for the {@code loadtest} profile, see {@link LoadTestStubs}.
+ */
+@Data
+@ConfigurationProperties(prefix = "load-test")
+public class LoadTestProperties {
+
+    // Number of generated partners (LOAD0001, LOAD0002, ...), each serving THEATRE, HALL and SHOW
+    private int partners = 20;
+
+    // Items per entity payload
+    private int items = 1000;
+
+    // String fields per item besides externalId
+    private int fields = 12;
+
+    // Length of each generated field value
+    private int valueLength = 16;
+
+    // Fields copied by the field mappings; the rest are dropped by normalization
+    private int mappedFields = 8;
+
+    // Serve payloads in pages of this size (PAGE strategy); 0 serves each payload in one response
+    private int pageSize = 0;
+
+    // Median and log-normal spread of the injected response latency
+    private Duration latencyMedian = Duration.ofMillis(50);
+    private double latencySigma = 0.4;
+
+    // Share of partner responses replaced by a 503
+    private double errorRate = 0.01;
+
+    // Share of partner responses replaced by a 429 with Retry-After
+    private double throttleRate = 0.01;
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    // Seed for payload contents, so that runs are comparable
+    private long seed = 42;
+
+    // Consecutive pollAllPartners runs; runs after the first mostly take the unchanged-item path
+    private int runs = 1;
+
+    // Where to write the JSON report of the last run, if set
+    private String reportFile;
+
+    // Exit with a non-zero status when a run takes longer than this, if set
+    private Duration maxRunTime;
+
+    // Shut the application down after the report
+    private boolean exitWhenDone = true;
+}
@@ -0,0 +1,177 @@
+package com.tms.adapter.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.tms.adapter.dto.FieldMapping;
+import com.tms.adapter.dto.PaginationConfig;
+import com.tms.adapter.dto.PartnerConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Stubs N synthetic partners on the local WireMock server, plus a Config Service stand-in that
+ * lists them and serves their field mappings.
+ *
+ * Point {@code config.service.url} at the WireMock server (application-loadtest.yml does) and
+ * every poll stays local. Partner responses get log-normal latency and go through
+ * {@link LoadTestFaultInjector}.
+ */
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+@Slf4j
+public class LoadTestStubs {
+
+    // Endpoint key -> entity type, as polled by PartnerPollingService
+    private static final Map<String, String> ENDPOINTS = Map.of(
+            "theatres", "THEATRE",
+            "halls", "HALL",
+            "shows", "SHOW");
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    private final WireMockConfig wireMockConfig;
+    private final LoadTestProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private long payloadBytes;
+
+    @PostConstruct
+    public void registerStubs() throws IOException {
+        WireMockServer server = wireMockConfig.getServer();
+        List<PartnerConfig> partners = new ArrayList<>();
+
+        for (int partner = 1; partner <= properties.getPartners(); partner++) {
+            String partnerId = String.format("LOAD%04d", partner);
+            partners.add(partnerConfig(partnerId, server.baseUrl()));
+
+            for (Map.Entry<String, String> endpoint : ENDPOINTS.entrySet()) {
+                Random random = new Random(properties.getSeed() * 31 + partner * 7L + endpoint.getValue().hashCode());
+                List<byte[]> pages = payloadPages(partnerId, endpoint.getValue(), random);
+                String path = "/load/" + partnerId + "/" + endpoint.getKey();
+                for (int page = 0; page < pages.size(); page++) {
+                    MappingBuilder request = WireMock.get(WireMock.urlPathEqualTo(path));
+                    if (properties.getPageSize() > 0) {
+                        request = request.withQueryParam("page", WireMock.equalTo(String.valueOf(page)));
+                    }
+                    server.stubFor(request.willReturn(WireMock.aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody(pages.get(page))
+                            .withLogNormalRandomDelay(properties.getLatencyMedian().toMillis(), properties.getLatencySigma())
+                            .withTransformers(LoadTestFaultInjector.NAME)));
+                    payloadBytes += pages.get(page).length;
+                }
+            }
+        }
+
+        // Config Service stand-in
+        server.stubFor(WireMock.get(WireMock.urlEqualTo("/partners/active"))
+                .willReturn(WireMock.okJson(objectMapper.writeValueAsString(partners))));
+        for (String entityType : ENDPOINTS.values()) {
+            server.stubFor(WireMock.get(WireMock.urlPathMatching("/integration/partners/LOAD\\d+/mappings/" + entityType))
+                    .willReturn(WireMock.okJson(objectMapper.writeValueAsString(fieldMappings(entityType)))));
+        }
+
+        log.info("Load test stubs registered: {} partners, {} items of {} fields per payload, {} KB of payloads",
+                properties.getPartners(), properties.getItems(), properties.getFields(), payloadBytes / 1024);
+    }
+
+    public long payloadBytes() {
+        return payloadBytes;
+    }
+
+    private PartnerConfig partnerConfig(String partnerId, String wireMockUrl) {
+        PartnerConfig config = new PartnerConfig();
+        config.setPartnerId(partnerId);
+        config.setBaseUrl(wireMockUrl + "/load/" + partnerId);
+        config.setActive(true);
+        Map<String, String> endpoints = new LinkedHashMap<>();
+        ENDPOINTS.keySet().forEach(key -> endpoints.put(key, "/" + key));
+        config.setEndpoints(endpoints);
+        if (properties.getPageSize() > 0) {
+            PaginationConfig pagination = new PaginationConfig();
+            pagination.setStrategy(PaginationConfig.Strategy.PAGE);
+            pagination.setPageSize(properties.getPageSize());
+            config.setPagination(pagination);
+        }
+        return config;
+    }
+
+    private List<FieldMapping> fieldMappings(String entityType) {
+        List<FieldMapping> mappings = new ArrayList<>();
+        mappings.add(fieldMapping(entityType, "externalId", "externalId", true));
+        for (int field = 0; field < Math.min(properties.getMappedFields(), properties.getFields()); field++) {
+            mappings.add(fieldMapping(entityType, "field" + field, "attribute" + field, false));
+        }
+        return mappings;
+    }
+
+    private static FieldMapping fieldMapping(String entityType, String source, String target, boolean required) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setEntityType(entityType);
+        mapping.setSourceField(source);
+        mapping.setTargetField(target);
+        mapping.setRequired(required);
+        return mapping;
+    }
+
+    /**
+     * The payload as JSON arrays, one per page. With paging, a trailing short (possibly empty)
+     * page ends the listing.
+     */
+    private List<byte[]> payloadPages(String partnerId, String entityType, Random random) {
+        int items = properties.getItems();
+        int pageSize = properties.getPageSize() > 0 ? properties.getPageSize() : Math.max(1, items);
+        List<byte[]> pages = new ArrayList<>();
+        int item = 0;
+        do {
+            int end = Math.min(items, item + pageSize);
+            pages.add(itemArray(partnerId, entityType, item, end, random));
+            item = end;
+        } while (properties.getPageSize() > 0 && pages.size() <= items / pageSize);
+        return pages;
+    }
+
+    private byte[] itemArray(String partnerId, String entityType, int from, int to, Random random) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (int item = from; item < to; item++) {
+                generator.writeStartObject();
+                generator.writeStringField("externalId", partnerId + "-" + entityType + "-" + item);
+                for (int field = 0; field < properties.getFields(); field++) {
+                    generator.writeStringField("field" + field, randomValue(random));
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private String randomValue(Random random) {
+        char[] value = new char[properties.getValueLength()];
+        for (int i = 0; i < value.length; i++) {
+            value[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(value);
+    }
+}
@@ -0,0 +1,36 @@
+package com.tms.adapter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "normalization")
+public class NormalizationProperties {
+
+    public enum Mode {
+        STREAMING, // token-level JsonParser/JsonGenerator pass, one array element at a time
+        TREE       // whole payload loaded as a JsonNode tree
+    }
+
+    private Mode mode = Mode.STREAMING;
+
+    private Parallel parallel = new Parallel();
+
+    /**
+     * Parallel normalization of arrays: item arrays being staged, always chunked, and whole arrays
+     * in TREE mode from the threshold on. STREAMING mode documents are written one element at a
+     * time and stay sequential.
+     */
+    @Data
+    public static class Parallel {
+
+        // Size from which TREE mode arrays are split into chunks
+        private int threshold = 10000;
+
+        // Items normalized by one pool task
+        private int chunkSize = 2000;
+
+        // Threads of the normalization pool, 0 for one per available processor
+        private int parallelism = 0;
+    }
+}
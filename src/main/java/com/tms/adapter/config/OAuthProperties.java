@@ -0,0 +1,30 @@
+package com.tms.adapter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "oauth")
+public class OAuthProperties {
+
+    public enum ClientAuthentication {
+        BODY,  // client_id / client_secret as form parameters
+        BASIC  // HTTP Basic authorization header
+    }
+
+    // Tokens this close to expiry are refreshed in the background while still being used
+    private Duration refreshBeforeExpiry = Duration.ofMinutes(5);
+
+    // Tokens this close to expiry are no longer sent; callers wait for a new one
+    private Duration expiryMargin = Duration.ofSeconds(30);
+
+    // Lifetime assumed when the token response carries no expires_in
+    private Duration defaultLifetime = Duration.ofMinutes(5);
+
+    private ClientAuthentication clientAuthentication = ClientAuthentication.BODY;
+
+    // Threads fetching tokens; further refreshes queue, at most one per partner
+    private int refreshThreads = 4;
+}
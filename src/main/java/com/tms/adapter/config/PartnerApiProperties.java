@@ -0,0 +1,145 @@
+package com.tms.adapter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "partner-api")
+public class PartnerApiProperties {
+
+    // Pages fetched ahead of the page being normalized and staged
+    private int prefetchDepth = 2;
+
+    // Safety stop for paged endpoints that never report a last page
+    private int maxPages = 10_000;
+
+    // Send stored ETag / Last-Modified validators and skip staging on 304 Not Modified
+    private boolean conditionalRequests = true;
+
+    private Http http = new Http();
+
+    private RateLimit rateLimit = new RateLimit();
+
+    private Resilience resilience = new Resilience();
+
+    /**
+     * HTTP settings for one partner, with unset overrides filled in from the defaults.
+     */
+    public Http.PartnerHttp httpFor(String partnerId) {
+        Http.PartnerHttp override = http.getPartners().getOrDefault(partnerId, new Http.PartnerHttp());
+        Http.PartnerHttp resolved = new Http.PartnerHttp();
+        resolved.setConnectTimeout(override.getConnectTimeout() != null ? override.getConnectTimeout() : http.getConnectTimeout());
+        resolved.setReadTimeout(override.getReadTimeout() != null ? override.getReadTimeout() : http.getReadTimeout());
+        resolved.setHttp2(override.getHttp2() != null ? override.getHttp2() : http.isHttp2());
+        return resolved;
+    }
+
+    /**
+     * Rate limit settings for one partner, with unset overrides filled in from the defaults.
+     */
+    public RateLimit.PartnerRateLimit rateLimitFor(String partnerId) {
+        RateLimit.PartnerRateLimit override = rateLimit.getPartners().getOrDefault(partnerId, new RateLimit.PartnerRateLimit());
+        RateLimit.PartnerRateLimit resolved = new RateLimit.PartnerRateLimit();
+        resolved.setMaxRequestsPerSecond(override.getMaxRequestsPerSecond() != null
+                ? override.getMaxRequestsPerSecond() : rateLimit.getMaxRequestsPerSecond());
+        resolved.setMaxConcurrency(override.getMaxConcurrency() != null
+                ? override.getMaxConcurrency() : rateLimit.getMaxConcurrency());
+        return resolved;
+    }
+
+    @Data
+    public static class Http {
+
+        // Connections across all partner hosts, and per host (route)
+        private int maxConnections = 64;
+        private int maxConnectionsPerHost = 8;
+
+        // Defaults, overridable per partner under partners.<partnerId>
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration readTimeout = Duration.ofSeconds(60);
+
+        // Pooled connections are retired after this long, and closed after being idle this long
+        private Duration connectionTtl = Duration.ofMinutes(5);
+        private Duration idleTimeout = Duration.ofSeconds(30);
+
+        // Keep-alive assumed when a partner does not send a Keep-Alive header
+        private Duration defaultKeepAlive = Duration.ofSeconds(30);
+
+        // Ask for gzip/deflate and decompress transparently
+        private boolean compression = true;
+
+        // Use the JDK client, which negotiates HTTP/2 and falls back to HTTP/1.1
+        private boolean http2 = false;
+
+        private Map<String, PartnerHttp> partners = new HashMap<>();
+
+        @Data
+        public static class PartnerHttp {
+            private Duration connectTimeout;
+            private Duration readTimeout;
+            private Boolean http2;
+        }
+    }
+
+    @Data
+    public static class RateLimit {
+
+        // Off: partner calls are not throttled on the client side
+        private boolean enabled = true;
+
+        // Token bucket; the refill rate adapts between min and max (overridable per partner)
+        private double maxRequestsPerSecond = 20;
+        private double minRequestsPerSecond = 0.5;
+        private int burst = 10;
+
+        // Concurrent requests per partner; the limit adapts between min and max (overridable per partner)
+        private int initialConcurrency = 4;
+        private int minConcurrency = 1;
+        private int maxConcurrency = 32;
+
+        // Rate and concurrency are multiplied by this on 429/503, timeouts or rising latency
+        private double backoffRatio = 0.5;
+
+        // Latency is rising once the recent average exceeds the partner's baseline by this factor
+        private double latencyTolerance = 2.0;
+
+        // Longer Retry-After values are capped to this
+        private Duration maxRetryAfter = Duration.ofMinutes(5);
+
+        private Map<String, PartnerRateLimit> partners = new HashMap<>();
+
+        @Data
+        public static class PartnerRateLimit {
+            private Double maxRequestsPerSecond;
+            private Integer maxConcurrency;
+        }
+    }
+
+    @Data
+    public static class Resilience {
+
+        // Attempts per request including the first; connection errors, timeouts, 429 and 502/503/504 are retried
+        private int maxAttempts = 3;
+
+        // Exponential backoff with full jitter between attempts
+        private Duration initialBackoff = Duration.ofMillis(500);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+
+        // No further attempt is started once a request has been retried for this long
+        private Duration retryBudget = Duration.ofMinutes(2);
+
+        // Consecutive failed attempts that open a partner's circuit, and how long it then stays open
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofMinutes(1);
+
+        // Send a second copy of a page request still unanswered after the partner's p95 latency
+        private boolean hedging = false;
+        private int hedgeMinSamples = 20;
+        private Duration hedgeMinDelay = Duration.ofMillis(100);
+        private int maxHedgeThreads = 16;
+    }
+}
@@ -0,0 +1,17 @@
+package com.tms.adapter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "cache.partner-config")
+public class PartnerConfigCacheProperties {
+
+    // Entries older than this are refreshed in the background while still being served
+    private Duration refreshAfter = Duration.ofMinutes(10);
+
+    // Entries older than this are logged as stale; they are still served until a refresh succeeds
+    private Duration ttl = Duration.ofMinutes(30);
+}
@@ -0,0 +1,100 @@
+package com.tms.adapter.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Outbound HTTP engine for partner APIs: one pooled, keep-alive client shared by all partners.
+ * Per-partner timeouts are applied on top of it by {@link com.tms.adapter.client.PartnerHttpClients}.
+ */
+@Configuration
+public class PartnerHttpConfig {
+
+    /**
+     * Connection settings for partner hosts; PartnerHttpClients derives per-host copies with the
+     * partners' connect timeouts.
+     */
+    public static ConnectionConfig connectionConfig(PartnerApiProperties.Http http) {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(http.getConnectTimeout()))
+                .setSocketTimeout(Timeout.of(http.getReadTimeout()))
+                .setTimeToLive(TimeValue.of(http.getConnectionTtl()))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager partnerConnectionManager(PartnerApiProperties properties) {
+        PartnerApiProperties.Http http = properties.getHttp();
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(http.getMaxConnections())
+                .setMaxConnPerRoute(http.getMaxConnectionsPerHost())
+                .setDefaultConnectionConfig(connectionConfig(http))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient partnerHttpClient(PoolingHttpClientConnectionManager partnerConnectionManager,
+                                                 PartnerApiProperties properties) {
+        PartnerApiProperties.Http http = properties.getHttp();
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(partnerConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.of(http.getReadTimeout()))
+                        // Used when the partner does not send a Keep-Alive header
+                        .setConnectionKeepAlive(TimeValue.of(http.getDefaultKeepAlive()))
+                        .build())
+                .setRetryStrategy(new DefaultHttpRequestRetryStrategy() {
+                    // 429/503 reach the caller so that the partner rate limiter can back off
+                    @Override
+                    public boolean retryRequest(HttpResponse response, int execCount, HttpContext context) {
+                        return false;
+                    }
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(http.getIdleTimeout()));
+
+        // Content compression (Accept-Encoding plus transparent gzip/deflate decoding) is on by default
+        if (!http.isCompression()) {
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public MeterBinder partnerConnectionPoolMetrics(PoolingHttpClientConnectionManager partnerConnectionManager) {
+        return registry -> {
+            gauge(registry, partnerConnectionManager, "leased", PoolStats::getLeased);
+            gauge(registry, partnerConnectionManager, "available", PoolStats::getAvailable);
+            gauge(registry, partnerConnectionManager, "pending", PoolStats::getPending);
+            gauge(registry, partnerConnectionManager, "max", PoolStats::getMax);
+        };
+    }
+
+    private static void gauge(MeterRegistry registry,
+                              PoolingHttpClientConnectionManager manager, String state,
+                              ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("partner.http.pool.connections", manager, m -> value.applyAsDouble(m.getTotalStats()))
+                .tag("state", state)
+                .description("Connections in the partner HTTP pool")
+                .register(registry);
+    }
+}
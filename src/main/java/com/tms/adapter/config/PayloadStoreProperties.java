@@ -0,0 +1,36 @@
+package com.tms.adapter.config;
+
+import com.tms.adapter.service.PayloadCodec;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "payload-store")
+public class PayloadStoreProperties {
+
+    // Store staging payloads compressed and deduplicated instead of in the raw_data/normalized_data columns
+    private boolean enabled = true;
+
+    // Root of the file-based blob store for payloads above inlineThreshold
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "tms-payload-store");
+
+    // Item payloads below this size stay in the staging row as they are, neither hashed nor compressed
+    private DataSize minSize = DataSize.ofKilobytes(2);
+
+    // Compressed payloads up to this size are kept in the payload_blobs row
+    private DataSize inlineThreshold = DataSize.ofKilobytes(16);
+
+    private PayloadCodec defaultCodec = PayloadCodec.GZIP;
+
+    // Per entity type codec overrides, e.g. SHOW: DEFLATE (raw deflate, see PayloadCodec)
+    private Map<String, PayloadCodec> codecs = new HashMap<>();
+
+    public PayloadCodec codecFor(String entityType) {
+        return codecs.getOrDefault(entityType, defaultCodec);
+    }
+}
@@ -0,0 +1,103 @@
+package com.tms.adapter.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the poll → normalize → stage path, tagged by partner and entity type.
+ *
+ * Histograms for Prometheus are switched on in application.yml
+ * ({@code management.metrics.distribution.percentiles-histogram.tms}).
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineMetrics {
+
+    private static final String PARTNER = "partner";
+    private static final String ENTITY_TYPE = "entity_type";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Time from sending a partner request until its response headers arrive.
+     */
+    public void recordFetch(String partnerId, String entityType, long nanos) {
+        Timer.builder("tms.partner.fetch")
+                .description("Partner API latency until response headers")
+                .tags(PARTNER, partnerId, ENTITY_TYPE, entityType)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPayload(String partnerId, String entityType, long bytes, long items) {
+        DistributionSummary.builder("tms.payload.bytes")
+                .description("Partner payload size as received")
+                .baseUnit("bytes")
+                .tags(PARTNER, partnerId, ENTITY_TYPE, entityType)
+                .register(registry)
+                .record(bytes);
+        DistributionSummary.builder("tms.payload.items")
+                .description("Items per partner payload")
+                .baseUnit("items")
+                .tags(PARTNER, partnerId, ENTITY_TYPE, entityType)
+                .register(registry)
+                .record(items);
+    }
+
+    /**
+     * Parsing and normalization time of one payload. The body is streamed, so this includes
+     * waiting on the partner connection but not staging inserts.
+     */
+    public void recordNormalization(String partnerId, String entityType, long nanos) {
+        Timer.builder("tms.normalization")
+                .description("Payload parse and normalization time")
+                .tags(PARTNER, partnerId, ENTITY_TYPE, entityType)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Time to write one staging batch (or document), including payload store writes. Item batches
+     * are written by StagingWriter and record the time of the transaction they were part of.
+     */
+    public void recordStagingInsert(String partnerId, String entityType, long nanos) {
+        Timer.builder("tms.staging.insert")
+                .description("Staging batch insert time")
+                .tags(PARTNER, partnerId, ENTITY_TYPE, entityType)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Item records waiting for the staging writer.
+     */
+    public void gaugeStagingQueue(Supplier<Number> queuedRecords) {
+        Gauge.builder("tms.staging.queue", queuedRecords)
+                .description("Item records queued for the staging writer")
+                .baseUnit("records")
+                .register(registry);
+    }
+
+    public <T> T timeConfigService(String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            Timer.builder("tms.config.service")
+                    .description("Config service call latency")
+                    .tags("operation", operation, "outcome", outcome)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
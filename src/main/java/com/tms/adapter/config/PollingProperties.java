@@ -0,0 +1,80 @@
+package com.tms.adapter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "polling")
+public class PollingProperties {
+
+    // Upper bound on entity fetches in flight across all partners
+    private int maxConcurrency = 16;
+
+    // Upper bound on entity fetches in flight for a single partner
+    private int perPartnerConcurrency = 2;
+
+    // Polls not started before the deadline are skipped and in-flight ones are interrupted
+    private Duration runDeadline = Duration.ofHours(2);
+
+    // Run polls on virtual threads when the JVM supports them (Java 21+)
+    private boolean virtualThreads = false;
+
+    // Cron for a run over every partner and entity type at once, "-" to disable
+    private String fullRunCron = "-";
+
+    private Schedule schedule = new Schedule();
+
+    /**
+     * Per partner and entity type polling intervals, dispatched by PollingScheduler.
+     */
+    @Data
+    public static class Schedule {
+
+        // Dispatch polls on their own intervals; full runs are then only needed for backfills
+        private boolean enabled = true;
+
+        // How often due polls are looked for
+        private long tickMs = 10000;
+
+        // Interval for entity types without an override
+        private Duration defaultInterval = Duration.ofHours(24);
+
+        // Per entity type, e.g. SHOW: 1h
+        private Map<String, Duration> intervals = new HashMap<>();
+
+        // Random delay added to each dispatch, as a share of the interval, capped by maxJitter
+        private double jitter = 0.05;
+        private Duration maxJitter = Duration.ofMinutes(5);
+
+        // Per partner overrides
+        private Map<String, PartnerSchedule> partners = new HashMap<>();
+
+        public Duration intervalFor(String partnerId, String entityType) {
+            PartnerSchedule partner = partners.get(partnerId);
+            if (partner != null) {
+                Duration interval = partner.getIntervals().get(entityType);
+                if (interval != null) {
+                    return interval;
+                }
+                if (partner.getInterval() != null) {
+                    return partner.getInterval();
+                }
+            }
+            return intervals.getOrDefault(entityType, defaultInterval);
+        }
+
+        @Data
+        public static class PartnerSchedule {
+
+            // Interval for this partner's entity types without an override
+            private Duration interval;
+
+            // Per entity type for this partner
+            private Map<String, Duration> intervals = new HashMap<>();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.tms.adapter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+
+    // Split partners across instances sharing the datasource; off means this instance polls all partners
+    private boolean enabled = true;
+
+    // Unique per instance; generated from the host name when empty
+    private String instanceId;
+
+    // A lease not renewed for this long is free for any instance, e.g. after a crash
+    private Duration leaseDuration = Duration.ofSeconds(30);
+
+    // Heartbeat and rebalance period, well below leaseDuration
+    private long heartbeatIntervalMs = 10000;
+
+    // A lease is treated as lost locally this long before its recorded expiry, to absorb clock skew
+    private Duration clockSkewMargin = Duration.ofSeconds(2);
+}
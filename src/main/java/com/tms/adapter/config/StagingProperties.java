@@ -0,0 +1,72 @@
+package com.tms.adapter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "staging")
+public class StagingProperties {
+
+    // Payload bytes kept in memory per spool before overflowing to a temp file
+    private DataSize spoolMemoryThreshold = DataSize.ofMegabytes(1);
+
+    // Item rows handed to the staging writer at a time; also drives hibernate.jdbc.batch_size
+    private int batchSize = 500;
+
+    // Field holding an item's external id, looked up in the normalized item first, then the raw item
+    private String externalIdField = "externalId";
+
+    // Per entity type overrides of externalIdField, e.g. SHOW: showId
+    private Map<String, String> externalIdFields = new HashMap<>();
+
+    // Skip items whose content hash matches the last staged version of the same externalId
+    private boolean deltaEnabled = true;
+
+    private Writer writer = new Writer();
+
+    private Feed feed = new Feed();
+
+    public String externalIdFieldFor(String entityType) {
+        return externalIdFields.getOrDefault(entityType, externalIdField);
+    }
+
+    /**
+     * Dedicated writer inserting item batches off the fetch threads, see StagingWriter.
+     */
+    @Data
+    public static class Writer {
+
+        // Item records waiting to be written before fetch threads block
+        private int queueCapacity = 5000;
+
+        // Records gathered, across partners, into one insert transaction
+        private int maxTransactionRecords = 2000;
+
+        // How long the writer waits for more batches before committing a smaller transaction
+        private Duration maxLinger = Duration.ofMillis(50);
+
+        // How long shutdown waits for queued batches to be written
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Consumption API for downstream loaders, see StagingRecordController.
+     */
+    @Data
+    public static class Feed {
+
+        // Records per page when the consumer does not ask for a size
+        private int defaultPageSize = 500;
+
+        // Upper bound on the page size a consumer can ask for
+        private int maxPageSize = 5000;
+
+        // Rows the streaming endpoints fetch from the database cursor at a time
+        private int fetchSize = 1000;
+    }
+}
@@ -3,7 +3,10 @@ package com.tms.adapter.config;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Extension;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
@@ -13,17 +16,27 @@ import jakarta.annotation.PreDestroy;
 
 @Configuration
 @ConditionalOnProperty(name = "wiremock.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
 @Slf4j
 public class WireMockConfig {
 
     @Value("${wiremock.port:8089}")
     private int wireMockPort;
 
+    @Value("${wiremock.container-threads:14}")
+    private int containerThreads;
+
+    // WireMock extensions declared as beans, e.g. the load test fault injector
+    private final ObjectProvider<Extension> extensions;
+
     private WireMockServer wireMockServer;
 
     @PostConstruct
     public void startWireMock() {
-        wireMockServer = new WireMockServer(WireMockConfiguration.options().port(wireMockPort));
+        wireMockServer = new WireMockServer(WireMockConfiguration.options()
+                .port(wireMockPort)
+                .containerThreads(containerThreads)
+                .extensions(extensions.orderedStream().toArray(Extension[]::new)));
         wireMockServer.start();
 
         log.info("WireMock server started on port {}", wireMockPort);
@@ -31,6 +44,13 @@ public class WireMockConfig {
         setupMockResponses();
     }
 
+    /**
+     * The running server, for registering further stubs.
+     */
+    public WireMockServer getServer() {
+        return wireMockServer;
+    }
+
     @PreDestroy
     public void stopWireMock() {
         if (wireMockServer != null && wireMockServer.isRunning()) {
@@ -0,0 +1,50 @@
+package com.tms.adapter.controller;
+
+import com.tms.adapter.client.ConditionalRequestStore;
+import com.tms.adapter.client.PartnerConfigCache;
+import com.tms.adapter.service.FieldMappingPlanCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+@Slf4j
+public class CacheController {
+
+    private final PartnerConfigCache partnerConfigCache;
+    private final FieldMappingPlanCache fieldMappingPlanCache;
+    private final ConditionalRequestStore conditionalRequestStore;
+
+    @PostMapping("/partner-configs/invalidate")
+    public ResponseEntity<Void> invalidatePartnerConfigs() {
+        partnerConfigCache.invalidate();
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/field-mappings/invalidate")
+    public ResponseEntity<Void> invalidateFieldMappings() {
+        fieldMappingPlanCache.invalidateAll();
+        // New mappings change the normalized output, so unchanged payloads must be fetched again
+        conditionalRequestStore.forgetAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/field-mappings/{partnerId}/invalidate")
+    public ResponseEntity<Void> invalidateFieldMappings(@PathVariable String partnerId) {
+        fieldMappingPlanCache.invalidate(partnerId);
+        conditionalRequestStore.forget(partnerId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/validators/{partnerId}/invalidate")
+    public ResponseEntity<Void> invalidateValidators(@PathVariable String partnerId) {
+        conditionalRequestStore.forget(partnerId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,19 +1,29 @@
 package com.tms.adapter.controller;
 
 import com.tms.adapter.dto.JobStatusResponse;
+import com.tms.adapter.dto.PartnerExecutionCounts;
+import com.tms.adapter.dto.PollingRunSummary;
+import com.tms.adapter.entity.JobDailySummary;
 import com.tms.adapter.entity.JobExecution;
 import com.tms.adapter.repository.JobExecutionRepository;
+import com.tms.adapter.service.JobSummaryService;
+import com.tms.adapter.service.PartnerPollingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
@@ -23,30 +33,40 @@ import java.util.stream.Collectors;
 public class JobStatusController {
 
     private final JobExecutionRepository jobExecutionRepository;
+    private final PartnerPollingService partnerPollingService;
+    private final JobSummaryService jobSummaryService;
 
     @GetMapping("/latest")
-    public JobStatusResponse getLatestJobStatus() {
-        List<JobExecution> latestExecutions = jobExecutionRepository.findLatestJobExecutions();
-
-        if (latestExecutions.isEmpty()) {
-            return JobStatusResponse.builder()
-                    .jobDate(LocalDate.now())
-                    .totalPartners(0)
-                    .successfulPartners(0)
-                    .failedPartners(0)
-                    .partnerStatuses(List.of())
-                    .build();
+    public ResponseEntity<JobStatusResponse> getLatestJobStatus(WebRequest request) {
+        Optional<JobDailySummary> latestSummary = jobSummaryService.findLatestDailySummary();
+        if (latestSummary.isPresent()) {
+            return summaryResponse(latestSummary.get(), request);
         }
 
-        LocalDate latestDate = latestExecutions.get(0).getJobDate();
-        return buildJobStatusResponse(latestDate, latestExecutions);
+        // No summaries yet: fall back to aggregating execution history
+        return ResponseEntity.ok(jobExecutionRepository.findLatestJobDate()
+                .map(this::buildJobStatusResponse)
+                .orElseGet(() -> JobStatusResponse.builder()
+                        .jobDate(LocalDate.now())
+                        .totalPartners(0)
+                        .successfulPartners(0)
+                        .failedPartners(0)
+                        .partnerStatuses(List.of())
+                        .build()));
+    }
+
+    @GetMapping("/runs/last")
+    public ResponseEntity<PollingRunSummary> getLastRunSummary() {
+        PollingRunSummary summary = partnerPollingService.getLastRunSummary();
+        return summary != null ? ResponseEntity.ok(summary) : ResponseEntity.noContent().build();
     }
 
     @GetMapping("/{date}")
-    public JobStatusResponse getJobStatusByDate(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        List<JobExecution> executions = jobExecutionRepository.findByJobDateOrderByExecutionTimeDesc(date);
-        return buildJobStatusResponse(date, executions);
+    public ResponseEntity<JobStatusResponse> getJobStatusByDate(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date, WebRequest request) {
+        return jobSummaryService.findDailySummary(date)
+                .map(summary -> summaryResponse(summary, request))
+                .orElseGet(() -> ResponseEntity.ok(buildJobStatusResponse(date)));
     }
 
     @GetMapping("/failed/{date}")
@@ -55,12 +75,53 @@ public class JobStatusController {
         return jobExecutionRepository.findFailedExecutionsByDate(date);
     }
 
-    private JobStatusResponse buildJobStatusResponse(LocalDate jobDate, List<JobExecution> executions) {
-        Map<String, List<JobExecution>> partnerExecutions = executions.stream()
-                .collect(Collectors.groupingBy(JobExecution::getPartnerId));
+    private ResponseEntity<JobStatusResponse> summaryResponse(JobDailySummary summary, WebRequest request) {
+        // The summary version changes on every recorded execution, so it identifies the response
+        String etag = "\"" + summary.getJobDate() + "-" + summary.getVersion() + "\"";
+        if (request.checkNotModified(etag, summary.getLastUpdated().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
 
-        List<JobStatusResponse.PartnerJobStatus> partnerStatuses = partnerExecutions.entrySet().stream()
-                .map(entry -> buildPartnerStatus(entry.getKey(), entry.getValue()))
+        List<JobStatusResponse.PartnerJobStatus> partnerStatuses = jobSummaryService
+                .findPartnerSummaries(summary.getJobDate()).stream()
+                .map(partner -> JobStatusResponse.PartnerJobStatus.builder()
+                        .partnerId(partner.getPartnerId())
+                        .successfulEntities(partner.getSuccessfulEntities())
+                        .failedEntities(partner.getFailedEntities())
+                        .failedEntityTypes(partner.getFailedEntityTypes() == null
+                                ? List.of()
+                                : List.of(partner.getFailedEntityTypes().split(",")))
+                        .overallStatus(partner.getOverallStatus())
+                        .build())
+                .collect(Collectors.toList());
+
+        JobStatusResponse response = JobStatusResponse.builder()
+                .jobDate(summary.getJobDate())
+                .totalPartners(summary.getTotalPartners())
+                .successfulPartners(summary.getSuccessfulPartners())
+                .failedPartners(summary.getFailedPartners())
+                .partnerStatuses(partnerStatuses)
+                .build();
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(summary.getLastUpdated())
+                .body(response);
+    }
+
+    private JobStatusResponse buildJobStatusResponse(LocalDate jobDate) {
+        // Counting happens in the database; only failed rows are fetched, and only two columns of them
+        List<PartnerExecutionCounts> counts = jobExecutionRepository.countExecutionsByPartner(jobDate);
+        Map<String, List<String>> failedEntityTypes = jobExecutionRepository.findFailedEntityTypesByDate(jobDate)
+                .stream()
+                .collect(Collectors.groupingBy(JobExecutionRepository.FailedEntityView::getPartnerId,
+                        // Distinct, most recent first, like the stored partner summaries
+                        Collectors.mapping(JobExecutionRepository.FailedEntityView::getEntityType,
+                                Collectors.collectingAndThen(Collectors.toCollection(LinkedHashSet::new), List::copyOf))));
+
+        List<JobStatusResponse.PartnerJobStatus> partnerStatuses = counts.stream()
+                .map(partnerCounts -> buildPartnerStatus(partnerCounts,
+                        failedEntityTypes.getOrDefault(partnerCounts.getPartnerId(), List.of())))
                 .collect(Collectors.toList());
 
         long successfulPartners = partnerStatuses.stream()
@@ -80,30 +141,17 @@ public class JobStatusController {
                 .build();
     }
 
-    private JobStatusResponse.PartnerJobStatus buildPartnerStatus(String partnerId, List<JobExecution> executions) {
-        long successful = executions.stream().filter(e -> "SUCCESS".equals(e.getStatus())).count();
-        long failed = executions.stream().filter(e -> "FAILED".equals(e.getStatus())).count();
-
-        List<String> failedEntityTypes = executions.stream()
-                .filter(e -> "FAILED".equals(e.getStatus()))
-                .map(JobExecution::getEntityType)
-                .collect(Collectors.toList());
-
-        String overallStatus;
-        if (failed == 0) {
-            overallStatus = "SUCCESS";
-        } else if (successful == 0) {
-            overallStatus = "FAILED";
-        } else {
-            overallStatus = "PARTIAL";
-        }
+    private JobStatusResponse.PartnerJobStatus buildPartnerStatus(PartnerExecutionCounts counts,
+                                                                  List<String> failedEntityTypes) {
+        long successful = counts.getSuccessfulEntities();
+        long failed = counts.getFailedEntities();
 
         return JobStatusResponse.PartnerJobStatus.builder()
-                .partnerId(partnerId)
+                .partnerId(counts.getPartnerId())
                 .successfulEntities((int) successful)
                 .failedEntities((int) failed)
                 .failedEntityTypes(failedEntityTypes)
-                .overallStatus(overallStatus)
+                .overallStatus(JobSummaryService.overallStatus(successful, failed))
                 .build();
     }
-}
\ No newline at end of file
+}
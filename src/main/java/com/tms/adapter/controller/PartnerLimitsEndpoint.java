@@ -0,0 +1,26 @@
+package com.tms.adapter.controller;
+
+import com.tms.adapter.client.PartnerRateLimiter;
+import com.tms.adapter.dto.PartnerLimitStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Current adaptive limits per partner, at {@code /actuator/partnerlimits}.
+ */
+@Component
+@Endpoint(id = "partnerlimits")
+@RequiredArgsConstructor
+public class PartnerLimitsEndpoint {
+
+    private final PartnerRateLimiter partnerRateLimiter;
+
+    @ReadOperation
+    public List<PartnerLimitStatus> limits() {
+        return partnerRateLimiter.status();
+    }
+}
@@ -0,0 +1,139 @@
+package com.tms.adapter.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.adapter.dto.StagingAcknowledgement;
+import com.tms.adapter.dto.StagingRecordPage;
+import com.tms.adapter.dto.StagingRecordView;
+import com.tms.adapter.repository.StagingRecordRepositoryCustom.FeedQuery;
+import com.tms.adapter.service.StagingFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Consumption API for the downstream TMS loader.
+ *
+ * A loader reads records after the last id it has loaded, page by page or as one stream, then
+ * acknowledges the id range it read and how many records it received. If records have appeared
+ * in that range since, the acknowledgement is refused with 409 and the loader reads it again.
+ *
+ * Streams are NDJSON or, with {@code Accept: text/event-stream}, server-sent events whose event
+ * id is the record id, so a reconnect resumes from {@code Last-Event-ID}.
+ */
+@RestController
+@RequestMapping("/api/staging-records")
+@RequiredArgsConstructor
+@Slf4j
+public class StagingRecordController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final StagingFeedService stagingFeedService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping
+    public StagingRecordPage getRecords(@RequestParam(required = false) String partnerId,
+                                        @RequestParam(required = false) String entityType,
+                                        @RequestParam(defaultValue = "PENDING") String status,
+                                        @RequestParam(defaultValue = "0") long afterId,
+                                        @RequestParam(required = false) Integer limit,
+                                        @RequestParam(defaultValue = "false") boolean includeRaw) {
+        return stagingFeedService.page(new FeedQuery(partnerId, entityType, status, includeRaw), afterId, limit);
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamNdjson(
+            @RequestParam(required = false) String partnerId,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(defaultValue = "PENDING") String status,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "0") long limit,
+            @RequestParam(defaultValue = "false") boolean includeRaw) {
+        FeedQuery query = new FeedQuery(partnerId, entityType, status, includeRaw);
+        StreamingResponseBody body = out -> stream(query, afterId, limit, out, (view, json) -> {
+            out.write(json);
+            out.write(NEWLINE);
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEvents(
+            @RequestParam(required = false) String partnerId,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(defaultValue = "PENDING") String status,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "0") long limit,
+            @RequestParam(defaultValue = "false") boolean includeRaw,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        FeedQuery query = new FeedQuery(partnerId, entityType, status, includeRaw);
+        long from = lastEventId != null ? lastEventId : afterId;
+        StreamingResponseBody body = out -> stream(query, from, limit, out, (view, json) -> {
+            out.write(("id: " + view.getId() + "\nevent: record\ndata: ").getBytes(StandardCharsets.UTF_8));
+            out.write(json); // Jackson escapes newlines inside strings, so the data fits on one line
+            out.write(NEWLINE);
+            out.write(NEWLINE);
+        });
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(body);
+    }
+
+    @PostMapping("/acknowledge")
+    public ResponseEntity<StagingAcknowledgement> acknowledge(
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam long upToId,
+            @RequestParam int received,
+            @RequestParam(required = false) String partnerId,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(defaultValue = "PENDING") String status) {
+        if ("DISPATCHED".equals(status) || received < 1 || upToId <= afterId) {
+            return ResponseEntity.badRequest().build();
+        }
+        FeedQuery query = new FeedQuery(partnerId, entityType, status, false);
+        int acknowledged = stagingFeedService.acknowledge(query, afterId, upToId, received);
+        StagingAcknowledgement acknowledgement = StagingAcknowledgement.builder()
+                .afterId(afterId)
+                .upToId(upToId)
+                .acknowledged(acknowledged)
+                .build();
+        return acknowledged == received ? ResponseEntity.ok(acknowledgement)
+                : ResponseEntity.status(HttpStatus.CONFLICT).body(acknowledgement);
+    }
+
+    private void stream(FeedQuery query, long afterId, long limit, OutputStream out, RecordWriter writer)
+            throws IOException {
+        try {
+            stagingFeedService.stream(query, afterId, limit, view -> {
+                try {
+                    writer.write(view, objectMapper.writeValueAsBytes(view));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the consumer went away; the cursor is closed and it resumes from its last id
+            log.info("Staging record stream ended early: {}", e.getMessage());
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(StagingRecordView view, byte[] json) throws IOException;
+    }
+}
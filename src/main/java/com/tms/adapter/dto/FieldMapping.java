@@ -2,11 +2,16 @@ package com.tms.adapter.dto;
 
 import lombok.Data;
 
+import java.util.Map;
+
 @Data
 public class FieldMapping {
     private String partnerId;
     private String entityType;
-    private String sourceField;
-    private String targetField;
+    private String sourceField; // top-level field name, or a JSON pointer such as /venue/address/city
+    private String targetField; // top-level field name, or a JSON pointer creating nested objects
     private boolean isRequired;
-}
\ No newline at end of file
+    private String transform; // optional: STRING, NUMBER, INTEGER, BOOLEAN, ISO_INSTANT, ISO_DATE or ENUM
+    private String format; // DateTimeFormatter pattern for ISO_INSTANT and ISO_DATE text values, ISO-8601 if unset
+    private Map<String, String> enumValues; // ENUM: partner value -> TMS value, matched ignoring case
+}
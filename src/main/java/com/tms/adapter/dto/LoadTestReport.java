@@ -0,0 +1,42 @@
+package com.tms.adapter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoadTestReport {
+    private int run;
+    private int partners;
+    private int itemsPerPayload;
+    private long durationMs;
+    private int successfulPolls;
+    private int failedPolls;
+    private int skippedPolls;
+    private long itemsReceived;
+    private long bytesReceived;
+    private long recordsStaged;
+    private double itemsPerSecond;
+    private double megabytesPerSecond;
+    private long heapPeakMb; // sum of the heap pools' peaks during the run
+    private long injectedErrors;
+    private long injectedThrottles;
+    private Map<String, StageLatency> stages; // by meter name, e.g. tms.normalization
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StageLatency {
+        private long count;
+        private double meanMs;
+        private Double p50Ms; // upper bound of the histogram bucket, null beyond the largest bucket
+        private Double p99Ms;
+    }
+}
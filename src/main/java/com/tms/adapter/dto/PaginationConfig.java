@@ -0,0 +1,37 @@
+package com.tms.adapter.dto;
+
+import lombok.Data;
+
+import java.util.Set;
+
+/**
+ * How a partner pages its listings. Part of {@link PartnerConfig}, supplied by the Config Service.
+ */
+@Data
+public class PaginationConfig {
+
+    public enum Strategy {
+        NONE,
+        PAGE,        // ?page=N&size=S
+        OFFSET,      // ?offset=N&limit=S
+        CURSOR,      // ?cursor=<token from the previous response body>
+        LINK_HEADER  // follow Link: <...>; rel="next"
+    }
+
+    private Strategy strategy = Strategy.NONE;
+    private Set<String> endpoints = Set.of(); // endpoint keys that are paged, empty means all
+    private int pageSize = 500;
+    private int firstPage = 0;
+    private String pageParam = "page";
+    private String sizeParam = "size";
+    private String offsetParam = "offset";
+    private String limitParam = "limit";
+    private String cursorParam = "cursor";
+    private String cursorPointer = "/nextCursor"; // JSON pointer to the next cursor in the page body
+    private String itemsPointer = "";             // JSON pointer to the items array, empty if the body is the array
+    private Integer prefetchDepth;                // overrides partner-api.prefetch-depth
+
+    public boolean appliesTo(String endpointKey) {
+        return strategy != Strategy.NONE && (endpoints.isEmpty() || endpoints.contains(endpointKey));
+    }
+}
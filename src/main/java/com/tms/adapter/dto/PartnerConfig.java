@@ -12,4 +12,5 @@ public class PartnerConfig {
     private String clientSecret;
     private boolean active;
     private Map<String, String> endpoints; // e.g., {"theatres": "/v1/theatres", "halls": "/v1/halls", "shows": "/v1/shows"}
+    private PaginationConfig pagination;
 }
\ No newline at end of file
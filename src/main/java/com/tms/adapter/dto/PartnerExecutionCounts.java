@@ -0,0 +1,17 @@
+package com.tms.adapter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-partner execution counts for one job date, aggregated in the database.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartnerExecutionCounts {
+    private String partnerId;
+    private long successfulEntities;
+    private long failedEntities;
+}
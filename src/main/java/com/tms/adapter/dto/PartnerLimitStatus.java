@@ -0,0 +1,23 @@
+package com.tms.adapter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PartnerLimitStatus {
+    private String partnerId;
+    private double requestsPerSecond;
+    private int concurrencyLimit;
+    private int inFlight;
+    private long baselineLatencyMs;
+    private long recentLatencyMs;
+    private long throttledResponses; // 429/503 and timeouts
+    private Instant blockedUntil; // set while honouring a Retry-After
+}
@@ -0,0 +1,27 @@
+package com.tms.adapter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PollingRunSummary {
+    private String runId;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long durationMs;
+    private int totalPartners;
+    private int scheduledPolls;
+    private int successfulPolls;
+    private int failedPolls;
+    private int skippedPolls; // not started or interrupted by the run deadline
+    private boolean deadlineExceeded;
+    private String slowestPartnerId;
+    private long slowestPartnerMs;
+}
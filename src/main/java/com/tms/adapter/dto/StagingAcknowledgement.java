@@ -0,0 +1,16 @@
+package com.tms.adapter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StagingAcknowledgement {
+    private long afterId;
+    private long upToId;
+    private int acknowledged; // records moved to DISPATCHED, 0 when the range was refused
+}
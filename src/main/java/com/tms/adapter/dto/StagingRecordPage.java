@@ -0,0 +1,18 @@
+package com.tms.adapter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StagingRecordPage {
+    private List<StagingRecordView> records;
+    private long nextAfterId; // pass as afterId for the next page
+    private boolean hasMore;
+}
@@ -0,0 +1,30 @@
+package com.tms.adapter.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StagingRecordView {
+    private long id;
+    private String partnerId;
+    private String entityType;
+    private String externalId;
+    private String status;
+    private String changeType;
+    private String batchId;
+    private Long contentHash;
+    private Instant receivedAt;
+    @JsonRawValue
+    private String normalizedData; // always JSON written by the adapter, so embedded as is
+    private String rawData; // only when requested; as received, which may not be valid JSON
+}
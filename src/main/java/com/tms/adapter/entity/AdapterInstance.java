@@ -0,0 +1,31 @@
+package com.tms.adapter.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A running adapter instance, used to work out each instance's fair share of partner leases.
+ */
+@Entity
+@Table(name = "adapter_instances")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdapterInstance {
+
+    @Id
+    @Column(name = "instance_id")
+    private String instanceId;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private Instant heartbeatAt;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+}
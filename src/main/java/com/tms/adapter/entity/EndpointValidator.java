@@ -0,0 +1,43 @@
+package com.tms.adapter.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * HTTP cache validators last returned by a partner endpoint, sent back on the next poll.
+ */
+@Entity
+@Table(name = "endpoint_validators", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_endpoint_validator_partner_endpoint", columnNames = {"partner_id", "endpoint_key"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EndpointValidator {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "partner_id", nullable = false)
+    private String partnerId;
+
+    @Column(name = "endpoint_key", nullable = false)
+    private String endpointKey;
+
+    @Column(name = "etag", length = 512)
+    private String etag;
+
+    @Column(name = "last_modified", length = 64)
+    private String lastModified; // kept verbatim, as the partner formatted it
+
+    @Column(name = "updated_at", nullable = false)
+    @Builder.Default
+    private Instant updatedAt = Instant.now();
+}
@@ -0,0 +1,46 @@
+package com.tms.adapter.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Running totals for one job date, maintained as job executions are recorded.
+ * The version changes on every update and doubles as the ETag of the job-status endpoints.
+ */
+@Entity
+@Table(name = "job_daily_summaries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobDailySummary {
+
+    @Id
+    @Column(name = "job_date")
+    private LocalDate jobDate;
+
+    @Column(name = "total_partners", nullable = false)
+    @Builder.Default
+    private int totalPartners = 0;
+
+    @Column(name = "successful_partners", nullable = false)
+    @Builder.Default
+    private int successfulPartners = 0;
+
+    @Column(name = "failed_partners", nullable = false)
+    @Builder.Default
+    private int failedPartners = 0;
+
+    @Column(name = "last_updated", nullable = false)
+    @Builder.Default
+    private Instant lastUpdated = Instant.now();
+
+    @Version
+    private Long version;
+}
@@ -10,7 +10,10 @@ import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "job_executions")
+@Table(name = "job_executions", indexes = {
+        @Index(name = "idx_job_exec_date_partner_status", columnList = "job_date, partner_id, status"),
+        @Index(name = "idx_job_exec_partner_date", columnList = "partner_id, job_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,58 @@
+package com.tms.adapter.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Running totals for one partner on one job date, maintained as job executions are recorded.
+ */
+@Entity
+@Table(name = "job_partner_summaries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_job_partner_summary_date_partner", columnNames = {"job_date", "partner_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobPartnerSummary {
+
+    public static final int FAILED_ENTITY_TYPES_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_date", nullable = false)
+    private LocalDate jobDate;
+
+    @Column(name = "partner_id", nullable = false)
+    private String partnerId;
+
+    @Column(name = "successful_entities", nullable = false)
+    @Builder.Default
+    private int successfulEntities = 0;
+
+    @Column(name = "failed_entities", nullable = false)
+    @Builder.Default
+    private int failedEntities = 0;
+
+    @Column(name = "records_processed", nullable = false)
+    @Builder.Default
+    private long recordsProcessed = 0;
+
+    @Column(name = "failed_entity_types", length = FAILED_ENTITY_TYPES_LENGTH)
+    private String failedEntityTypes; // distinct, comma-separated, most recent first
+
+    @Column(name = "overall_status")
+    private String overallStatus; // SUCCESS, PARTIAL, FAILED
+
+    @Column(name = "last_updated", nullable = false)
+    @Builder.Default
+    private Instant lastUpdated = Instant.now();
+}
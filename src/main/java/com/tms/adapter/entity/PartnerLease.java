@@ -0,0 +1,35 @@
+package com.tms.adapter.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Which adapter instance polls a partner. A lease whose expiry has passed may be claimed by any
+ * instance; the owner keeps it by renewing it on every heartbeat.
+ */
+@Entity
+@Table(name = "partner_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PartnerLease {
+
+    @Id
+    @Column(name = "partner_id")
+    private String partnerId;
+
+    @Column(name = "owner")
+    private String owner; // instance id, null until first claimed
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "claimed_at")
+    private Instant claimedAt;
+}
@@ -0,0 +1,65 @@
+package com.tms.adapter.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "payload_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayloadBlob implements Persistable<String> {
+
+    public static final int MAX_INLINE_BYTES = 65536;
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // SHA-256 of the uncompressed payload, hex encoded
+
+    @Column(name = "codec", nullable = false)
+    private String codec; // NONE, GZIP, DEFLATE
+
+    @Column(name = "storage", nullable = false)
+    private String storage; // INLINE, FILE
+
+    @Column(name = "original_size", nullable = false)
+    private Long originalSize;
+
+    @Column(name = "stored_size", nullable = false)
+    private Long storedSize;
+
+    @Column(name = "inline_data", length = MAX_INLINE_BYTES)
+    private byte[] inlineData;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+
+    // Hashes are assigned ids, so tell Spring Data to persist instead of merge-with-select
+    @Transient
+    @Builder.Default
+    private boolean newBlob = true;
+
+    @Override
+    public String getId() {
+        return contentHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newBlob;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newBlob = false;
+    }
+}
@@ -8,15 +8,22 @@ import lombok.Builder;
 import java.time.Instant;
 
 @Entity
-@Table(name = "staging_records")
+@Table(name = "staging_records", indexes = {
+        @Index(name = "idx_staging_partner_entity_external", columnList = "partner_id, entity_type, external_id"),
+        // Keyset reads of the consumption feed, see StagingRecordRepositoryImpl
+        @Index(name = "idx_staging_status_id", columnList = "status, id"),
+        @Index(name = "idx_staging_partner_entity_status_id", columnList = "partner_id, entity_type, status, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class StagingRecord {
 
+    // Pooled sequence allocation lets Hibernate batch inserts, which IDENTITY prevents
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "staging_records_seq")
+    @SequenceGenerator(name = "staging_records_seq", sequenceName = "staging_records_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "partner_id", nullable = false)
@@ -33,7 +40,7 @@ public class StagingRecord {
 
     @Column(name = "status", nullable = false)
     @Builder.Default
-    private String status = "PENDING";
+    private String status = "PENDING"; // PENDING, FAILED, DISPATCHED once acknowledged by the consumer
 
     @Column(name = "batch_id")
     private String batchId;
@@ -41,6 +48,19 @@ public class StagingRecord {
     @Column(name = "normalized_data", columnDefinition = "TEXT")
     private String normalizedData;
 
+    // Set instead of raw_data/normalized_data when the payload lives in payload_blobs
+    @Column(name = "raw_ref", length = 64)
+    private String rawRef;
+
+    @Column(name = "normalized_ref", length = 64)
+    private String normalizedRef;
+
+    @Column(name = "content_hash")
+    private Long contentHash; // XXH64 of normalized_data, compared against the previous poll
+
+    @Column(name = "change_type")
+    private String changeType; // NEW, CHANGED
+
     @Column(name = "received_at", nullable = false)
     @Builder.Default
     private Instant receivedAt = Instant.now();
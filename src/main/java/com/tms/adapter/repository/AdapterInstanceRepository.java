@@ -0,0 +1,27 @@
+package com.tms.adapter.repository;
+
+import com.tms.adapter.entity.AdapterInstance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface AdapterInstanceRepository extends JpaRepository<AdapterInstance, String> {
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AdapterInstance i SET i.heartbeatAt = :now WHERE i.instanceId = :instanceId")
+    int heartbeat(@Param("instanceId") String instanceId, @Param("now") Instant now);
+
+    long countByHeartbeatAtAfter(Instant since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AdapterInstance i WHERE i.heartbeatAt < :before")
+    int deleteByHeartbeatAtBefore(@Param("before") Instant before);
+}
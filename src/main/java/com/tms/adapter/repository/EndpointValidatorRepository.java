@@ -0,0 +1,22 @@
+package com.tms.adapter.repository;
+
+import com.tms.adapter.entity.EndpointValidator;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface EndpointValidatorRepository extends JpaRepository<EndpointValidator, Long> {
+
+    Optional<EndpointValidator> findByPartnerIdAndEndpointKey(String partnerId, String endpointKey);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EndpointValidator v WHERE v.partnerId = :partnerId")
+    int deleteByPartner(@Param("partnerId") String partnerId);
+}
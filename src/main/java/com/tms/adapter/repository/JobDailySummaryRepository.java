@@ -0,0 +1,30 @@
+package com.tms.adapter.repository;
+
+import com.tms.adapter.entity.JobDailySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface JobDailySummaryRepository extends JpaRepository<JobDailySummary, LocalDate> {
+
+    Optional<JobDailySummary> findFirstByOrderByJobDateDesc();
+
+    /**
+     * Adds the deltas in place, so concurrent writers only hold the row for this one statement.
+     * The version is bumped as well, since it is the ETag of the job-status endpoints.
+     */
+    @Modifying
+    @Query("UPDATE JobDailySummary d SET d.totalPartners = d.totalPartners + :partners, "
+            + "d.successfulPartners = d.successfulPartners + :successful, "
+            + "d.failedPartners = d.failedPartners + :failed, "
+            + "d.lastUpdated = :now, d.version = d.version + 1 WHERE d.jobDate = :date")
+    int increment(@Param("date") LocalDate date, @Param("partners") int partners,
+                  @Param("successful") int successful, @Param("failed") int failed, @Param("now") Instant now);
+}
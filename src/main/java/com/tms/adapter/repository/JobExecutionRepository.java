@@ -1,5 +1,6 @@
 package com.tms.adapter.repository;
 
+import com.tms.adapter.dto.PartnerExecutionCounts;
 import com.tms.adapter.entity.JobExecution;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -8,10 +9,17 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface JobExecutionRepository extends JpaRepository<JobExecution, Long> {
 
+    interface FailedEntityView {
+        String getPartnerId();
+
+        String getEntityType();
+    }
+
     List<JobExecution> findByJobDateOrderByExecutionTimeDesc(LocalDate jobDate);
 
     List<JobExecution> findByPartnerIdAndJobDateOrderByExecutionTimeDesc(String partnerId, LocalDate jobDate);
@@ -19,6 +27,25 @@ public interface JobExecutionRepository extends JpaRepository<JobExecution, Long
     @Query("SELECT je FROM JobExecution je WHERE je.jobDate = :date AND je.status = 'FAILED'")
     List<JobExecution> findFailedExecutionsByDate(@Param("date") LocalDate date);
 
-    @Query("SELECT je FROM JobExecution je WHERE je.jobDate = (SELECT MAX(je2.jobDate) FROM JobExecution je2)")
-    List<JobExecution> findLatestJobExecutions();
-}
\ No newline at end of file
+    // Answered from idx_job_exec_date_partner_status without touching the table
+    @Query("SELECT MAX(je.jobDate) FROM JobExecution je")
+    Optional<LocalDate> findLatestJobDate();
+
+    @Query("""
+            SELECT new com.tms.adapter.dto.PartnerExecutionCounts(je.partnerId,
+                   SUM(CASE WHEN je.status = 'SUCCESS' THEN 1L ELSE 0L END),
+                   SUM(CASE WHEN je.status = 'FAILED' THEN 1L ELSE 0L END))
+            FROM JobExecution je
+            WHERE je.jobDate = :date
+            GROUP BY je.partnerId
+            ORDER BY je.partnerId
+            """)
+    List<PartnerExecutionCounts> countExecutionsByPartner(@Param("date") LocalDate date);
+
+    @Query("""
+            SELECT je.partnerId AS partnerId, je.entityType AS entityType FROM JobExecution je
+            WHERE je.jobDate = :date AND je.status = 'FAILED'
+            ORDER BY je.executionTime DESC
+            """)
+    List<FailedEntityView> findFailedEntityTypesByDate(@Param("date") LocalDate date);
+}
@@ -0,0 +1,28 @@
+package com.tms.adapter.repository;
+
+import com.tms.adapter.entity.JobPartnerSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JobPartnerSummaryRepository extends JpaRepository<JobPartnerSummary, Long> {
+
+    Optional<JobPartnerSummary> findByJobDateAndPartnerId(LocalDate jobDate, String partnerId);
+
+    boolean existsByJobDateAndPartnerId(LocalDate jobDate, String partnerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM JobPartnerSummary p WHERE p.jobDate = :date AND p.partnerId = :partnerId")
+    Optional<JobPartnerSummary> findForUpdate(@Param("date") LocalDate date, @Param("partnerId") String partnerId);
+
+    // Rows without a status are placeholders whose first execution has not been recorded yet
+    List<JobPartnerSummary> findByJobDateAndOverallStatusIsNotNullOrderByPartnerId(LocalDate jobDate);
+}
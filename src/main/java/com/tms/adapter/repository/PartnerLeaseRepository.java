@@ -0,0 +1,51 @@
+package com.tms.adapter.repository;
+
+import com.tms.adapter.entity.PartnerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface PartnerLeaseRepository extends JpaRepository<PartnerLease, String> {
+
+    @Query("SELECT l.partnerId FROM PartnerLease l WHERE l.expiresAt < :now")
+    List<String> findExpiredPartnerIds(@Param("now") Instant now);
+
+    /**
+     * Takes over an expired lease. Two instances racing for the same lease both run this update,
+     * but only the first one matches the expiry condition.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE PartnerLease l SET l.owner = :owner, l.expiresAt = :expiresAt, l.claimedAt = :now
+            WHERE l.partnerId = :partnerId AND l.expiresAt < :now
+            """)
+    int claim(@Param("partnerId") String partnerId, @Param("owner") String owner,
+              @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PartnerLease l SET l.expiresAt = :expiresAt WHERE l.owner = :owner AND l.expiresAt >= :now")
+    int renewAll(@Param("owner") String owner, @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    @Query("SELECT l.partnerId FROM PartnerLease l WHERE l.owner = :owner AND l.expiresAt >= :now")
+    List<String> findHeldPartnerIds(@Param("owner") String owner, @Param("now") Instant now);
+
+    // Expiring a lease right away hands it to whichever instance claims it next
+    @Modifying
+    @Transactional
+    @Query("UPDATE PartnerLease l SET l.expiresAt = :now WHERE l.partnerId = :partnerId AND l.owner = :owner")
+    int release(@Param("partnerId") String partnerId, @Param("owner") String owner, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PartnerLease l SET l.expiresAt = :now WHERE l.owner = :owner AND l.expiresAt > :now")
+    int releaseAll(@Param("owner") String owner, @Param("now") Instant now);
+}
@@ -0,0 +1,25 @@
+package com.tms.adapter.repository;
+
+import com.tms.adapter.entity.PayloadBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PayloadBlobRepository extends JpaRepository<PayloadBlob, String> {
+
+    interface StoredFormView {
+        String getContentHash();
+
+        String getStorage();
+
+        String getCodec();
+    }
+
+    @Query("SELECT b.contentHash AS contentHash, b.storage AS storage, b.codec AS codec FROM PayloadBlob b WHERE b.contentHash IN :hashes")
+    List<StoredFormView> findStoredForms(@Param("hashes") Collection<String> hashes);
+}
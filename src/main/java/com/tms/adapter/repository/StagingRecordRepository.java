@@ -2,8 +2,30 @@ package com.tms.adapter.repository;
 
 import com.tms.adapter.entity.StagingRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface StagingRecordRepository extends JpaRepository<StagingRecord, Long> {
-}
\ No newline at end of file
+public interface StagingRecordRepository extends JpaRepository<StagingRecord, Long>, StagingRecordRepositoryCustom {
+
+    interface ContentHashView {
+        String getExternalId();
+
+        Long getContentHash();
+    }
+
+    @Query("""
+            SELECT s.externalId AS externalId, s.contentHash AS contentHash FROM StagingRecord s
+            WHERE s.partnerId = :partnerId AND s.entityType = :entityType AND s.externalId IN :externalIds
+              AND s.id = (SELECT MAX(s2.id) FROM StagingRecord s2
+                          WHERE s2.partnerId = s.partnerId AND s2.entityType = s.entityType
+                            AND s2.externalId = s.externalId AND s2.contentHash IS NOT NULL)
+            """)
+    List<ContentHashView> findLatestContentHashes(@Param("partnerId") String partnerId,
+                                                  @Param("entityType") String entityType,
+                                                  @Param("externalIds") Collection<String> externalIds);
+}
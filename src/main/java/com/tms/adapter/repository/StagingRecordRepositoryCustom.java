@@ -0,0 +1,48 @@
+package com.tms.adapter.repository;
+
+import com.tms.adapter.entity.StagingRecord;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface StagingRecordRepositoryCustom {
+
+    /**
+     * Selects staging records for downstream consumers; null filters match everything.
+     * {@code includeRaw} also reads the raw payload columns.
+     */
+    record FeedQuery(String partnerId, String entityType, String status, boolean includeRaw) {
+    }
+
+    /**
+     * Inserts a staging record, streaming the payload columns from the given readers instead of
+     * binding them as Strings. {@code normalizedData} may be null.
+     */
+    void insertStreamed(StagingRecord record, Reader rawData, Reader normalizedData);
+
+    /**
+     * Up to {@code limit} records with an id above {@code afterId}, in id order. The records are
+     * not managed by the persistence context.
+     */
+    List<StagingRecord> findFeedPage(FeedQuery query, long afterId, int limit);
+
+    /**
+     * Passes every record with an id above {@code afterId}, in id order, to the consumer while
+     * reading them through a forward-only cursor. {@code limit} 0 reads to the end.
+     */
+    void streamFeed(FeedQuery query, long afterId, long limit, int fetchSize, Consumer<StagingRecord> consumer);
+
+    /**
+     * Moves the matching records with an id above {@code afterId} and up to {@code upToId} to
+     * DISPATCHED, but only while exactly {@code received} of them are visible. Ids come from a
+     * pooled sequence and commit out of order, so a record can appear in a range after the
+     * consumer read it; the range is then left alone rather than marking that record unread.
+     *
+     * @return the number of records moved, always {@code received}
+     * @throws JdbcUpdateAffectedIncorrectNumberOfRowsException when the range does not match
+     *                                                          {@code received}; nothing is moved
+     */
+    int acknowledge(FeedQuery query, long afterId, long upToId, int received);
+}
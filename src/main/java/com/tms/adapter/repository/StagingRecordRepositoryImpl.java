@@ -0,0 +1,174 @@
+package com.tms.adapter.repository;
+
+import com.tms.adapter.entity.StagingRecord;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.Reader;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class StagingRecordRepositoryImpl implements StagingRecordRepositoryCustom {
+
+    private static final String UPDATE_PAYLOAD_SQL =
+            "UPDATE staging_records SET raw_data = ?, normalized_data = ? WHERE id = ?";
+
+    private static final String FEED_COLUMNS = "id, partner_id, entity_type, external_id, status, batch_id, "
+            + "normalized_data, normalized_ref, content_hash, change_type, received_at";
+
+    private static final String RAW_COLUMNS = ", raw_data, raw_ref";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * The row is persisted through Hibernate first so its id comes from the pooled sequence
+     * allocator, then the payload columns are streamed in with a plain JDBC update.
+     */
+    @Override
+    @Transactional
+    public void insertStreamed(StagingRecord record, Reader rawData, Reader normalizedData) {
+        entityManager.persist(record);
+        entityManager.flush();
+
+        jdbcTemplate.update(UPDATE_PAYLOAD_SQL, ps -> {
+            ps.setCharacterStream(1, rawData);
+            if (normalizedData != null) {
+                ps.setCharacterStream(2, normalizedData);
+            } else {
+                ps.setNull(2, Types.VARCHAR);
+            }
+            ps.setLong(3, record.getId());
+        });
+    }
+
+    /**
+     * Keyset pagination: the page starts from an index seek on id, however deep the consumer is.
+     */
+    @Override
+    public List<StagingRecord> findFeedPage(FeedQuery query, long afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = feedSql(query, afterId, args) + " LIMIT ?";
+        args.add(limit);
+        return jdbcTemplate.query(sql, feedRowMapper(query), args.toArray());
+    }
+
+    /**
+     * Runs in a read-only transaction, which is what lets PostgreSQL honour the fetch size instead
+     * of loading the whole result. Rows are mapped one at a time and never attached to Hibernate.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamFeed(FeedQuery query, long afterId, long limit, int fetchSize, Consumer<StagingRecord> consumer) {
+        List<Object> args = new ArrayList<>();
+        String sql = feedSql(query, afterId, args) + (limit > 0 ? " LIMIT ?" : "");
+        if (limit > 0) {
+            args.add(limit);
+        }
+        RowMapper<StagingRecord> rowMapper = feedRowMapper(query);
+        int clearEvery = Math.max(1, fetchSize);
+        int[] rows = {0};
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            consumer.accept(rowMapper.mapRow(rs, 0));
+            // Payload lookups made by the consumer join this transaction; their entities must not pile up
+            if (++rows[0] % clearEvery == 0) {
+                entityManager.clear();
+            }
+        });
+    }
+
+    /**
+     * The update itself is the count guard: when it touches a different number of rows than the
+     * loader received, the exception rolls it back. Unlike a COUNT subquery on the updated table,
+     * this also runs on MySQL.
+     */
+    @Override
+    @Transactional
+    public int acknowledge(FeedQuery query, long afterId, long upToId, int received) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+                "UPDATE staging_records SET status = 'DISPATCHED' WHERE id > ? AND id <= ?");
+        args.add(afterId);
+        args.add(upToId);
+        appendFilters(query, sql, args);
+        int updated = jdbcTemplate.update(sql.toString(), args.toArray());
+        if (updated != received) {
+            throw new JdbcUpdateAffectedIncorrectNumberOfRowsException(sql.toString(), received, updated);
+        }
+        return updated;
+    }
+
+    private static String feedSql(FeedQuery query, long afterId, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(FEED_COLUMNS);
+        if (query.includeRaw()) {
+            sql.append(RAW_COLUMNS);
+        }
+        sql.append(" FROM staging_records WHERE id > ?");
+        args.add(afterId);
+        appendFilters(query, sql, args);
+        return sql.append(" ORDER BY id").toString();
+    }
+
+    private static void appendFilters(FeedQuery query, StringBuilder sql, List<Object> args) {
+        if (query.status() != null) {
+            sql.append(" AND status = ?");
+            args.add(query.status());
+        }
+        if (query.partnerId() != null) {
+            sql.append(" AND partner_id = ?");
+            args.add(query.partnerId());
+        }
+        if (query.entityType() != null) {
+            sql.append(" AND entity_type = ?");
+            args.add(query.entityType());
+        }
+    }
+
+    private static RowMapper<StagingRecord> feedRowMapper(FeedQuery query) {
+        return (rs, rowNum) -> {
+            long hash = rs.getLong("content_hash");
+            Long contentHash = rs.wasNull() ? null : hash;
+            StagingRecord record = StagingRecord.builder()
+                    .id(rs.getLong("id"))
+                    .partnerId(rs.getString("partner_id"))
+                    .entityType(rs.getString("entity_type"))
+                    .externalId(rs.getString("external_id"))
+                    .status(rs.getString("status"))
+                    .batchId(rs.getString("batch_id"))
+                    .normalizedData(rs.getString("normalized_data"))
+                    .normalizedRef(rs.getString("normalized_ref"))
+                    .contentHash(contentHash)
+                    .changeType(rs.getString("change_type"))
+                    .receivedAt(rs.getObject("received_at", OffsetDateTime.class).toInstant())
+                    .build();
+            if (query.includeRaw()) {
+                record.setRawData(rs.getString("raw_data"));
+                record.setRawRef(rs.getString("raw_ref"));
+            }
+            return record;
+        };
+    }
+}
@@ -1,54 +1,175 @@
 package com.tms.adapter.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.tms.adapter.client.ConfigServiceClient;
-import com.tms.adapter.dto.FieldMapping;
-import lombok.RequiredArgsConstructor;
+import com.tms.adapter.config.NormalizationProperties;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DataNormalizationService {
 
     private final ObjectMapper objectMapper;
-    private final ConfigServiceClient configServiceClient;
+    private final FieldMappingPlanCache fieldMappingPlanCache;
+    private final StreamingJsonNormalizer streamingJsonNormalizer;
+    private final NormalizationProperties normalizationProperties;
+    // Large arrays only; kept apart from the common pool so polls cannot starve other users
+    private final ForkJoinPool normalizationPool;
 
-    public String normalizeData(String rawData, String partnerId, String entityType) {
-        try {
-            // Step 1: Validate JSON format
-            JsonNode rawJson = objectMapper.readTree(rawData);
+    public DataNormalizationService(ObjectMapper objectMapper, FieldMappingPlanCache fieldMappingPlanCache,
+                                    StreamingJsonNormalizer streamingJsonNormalizer,
+                                    NormalizationProperties normalizationProperties) {
+        this.objectMapper = objectMapper;
+        this.fieldMappingPlanCache = fieldMappingPlanCache;
+        this.streamingJsonNormalizer = streamingJsonNormalizer;
+        this.normalizationProperties = normalizationProperties;
+        int parallelism = normalizationProperties.getParallel().getParallelism();
+        AtomicInteger workers = new AtomicInteger();
+        // Workers are started on demand, so an unused pool costs nothing
+        this.normalizationPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("normalize-" + workers.incrementAndGet());
+                    return thread;
+                }, null, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        normalizationPool.shutdownNow();
+    }
+
+    /**
+     * Normalizes a payload straight from {@code rawData} into {@code normalizedData}.
+     * Neither stream is closed, so callers can keep reading or writing after normalization.
+     *
+     * @return false when the field mappings could not be fetched and only basic validation ran
+     */
+    public boolean normalizeData(InputStream rawData, OutputStream normalizedData, String partnerId, String entityType) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(rawData)
+                .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(normalizedData)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            return normalize(parser, generator, partnerId, entityType);
+        } catch (Exception e) {
+            log.error("Failed to normalize data for partner {} entity {}: {}", partnerId, entityType, e.getMessage());
+            throw new RuntimeException("Data normalization failed: " + e.getMessage(), e);
+        }
+    }
 
-            // Step 2: Get field mappings from config service
-            List<FieldMapping> mappings = getFieldMappings(partnerId, entityType);
+    /**
+     * Normalizes a top-level JSON array element by element, handing each item to {@code sink} in
+     * array order. An item that fails validation is reported to the sink and does not stop the
+     * remaining items; malformed JSON aborts the whole payload.
+     *
+     * Items are parsed on the caller thread into chunks of {@code normalization.parallel.chunk-size}.
+     * Each chunk is normalized and prepared by the sink on the normalization pool while the caller
+     * parses the next ones, so at most one chunk per pool thread is held in memory. The last chunk
+     * is done on the caller thread, which is all there is for an array shorter than a chunk.
+     *
+     * @return false when the field mappings could not be fetched and only basic validation ran
+     */
+    public <T> boolean normalizeItems(InputStream rawData, String partnerId, String entityType, ItemSink<T> sink) {
+        Deque<ForkJoinTask<NormalizedChunk<T>>> inFlight = new ArrayDeque<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(rawData)
+                .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Invalid data format - expected JSON array");
+            }
 
-            // Step 3: Apply field mappings and transformations
-            JsonNode normalizedJson = applyFieldMappings(rawJson, mappings, partnerId, entityType);
+            FieldMappingPlan plan = fieldMappingPlanCache.getPlan(partnerId, entityType);
+            int chunkSize = Math.max(1, normalizationProperties.getParallel().getChunkSize());
+            List<JsonNode> chunk = new ArrayList<>();
+            int items = 0;
 
-            return objectMapper.writeValueAsString(normalizedJson);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                chunk.add(objectMapper.readTree(parser));
+                items++;
+                if (chunk.size() >= chunkSize) {
+                    submitChunk(chunk, plan, partnerId, entityType, inFlight, sink);
+                    chunk = new ArrayList<>();
+                }
+            }
+            NormalizedChunk<T> last = normalizeChunk(chunk, plan, partnerId, entityType, sink);
+            while (!inFlight.isEmpty()) {
+                inFlight.removeFirst().join().deliver(sink);
+            }
+            last.deliver(sink);
 
-        } catch (Exception e) {
+            if (items == 0) {
+                throw new IllegalArgumentException("Empty or null data received");
+            }
+            if (items > chunkSize) {
+                log.debug("Normalized {} {} items for partner {} in chunks of {}",
+                        items, entityType, partnerId, chunkSize);
+            }
+            return !plan.isFallback();
+        } catch (IOException | IllegalArgumentException e) {
             log.error("Failed to normalize data for partner {} entity {}: {}", partnerId, entityType, e.getMessage());
             throw new RuntimeException("Data normalization failed: " + e.getMessage(), e);
+        } finally {
+            // Chunks past a parse or sink failure are not delivered
+            inFlight.forEach(task -> task.cancel(false));
         }
     }
 
-    private List<FieldMapping> getFieldMappings(String partnerId, String entityType) {
-        try {
-            return configServiceClient.getFieldMappings(partnerId, entityType);
-        } catch (Exception e) {
-            log.warn("Could not fetch field mappings for partner {} entity {}: {}", partnerId, entityType, e.getMessage());
-            return List.of(); // Return empty list for basic validation only
+    /**
+     * Receives the items of {@link #normalizeItems}. {@link #normalized} and {@link #failed} are
+     * called on the caller thread in array order; {@link #prepare} is not.
+     */
+    public interface ItemSink<T> {
+        /**
+         * Per-item work that does not depend on array order, such as serializing and hashing the
+         * item. Runs on the normalization pool for different items at once, so it must not touch
+         * the sink's state. A runtime exception reports the item as failed.
+         */
+        T prepare(JsonNode rawItem, JsonNode normalizedItem);
+
+        void normalized(T item);
+
+        void failed(JsonNode rawItem, String errorMessage);
+    }
+
+    private boolean normalize(JsonParser parser, JsonGenerator generator, String partnerId, String entityType)
+            throws IOException {
+        // Get the compiled field mapping plan (cached per partner and entity type)
+        FieldMappingPlan plan = fieldMappingPlanCache.getPlan(partnerId, entityType);
+
+        if (normalizationProperties.getMode() == NormalizationProperties.Mode.STREAMING) {
+            streamingJsonNormalizer.normalize(parser, generator, plan, partnerId, entityType);
+            return !plan.isFallback();
         }
+
+        // Tree fallback: load the whole payload, then apply mappings and transformations
+        JsonNode rawJson = objectMapper.readTree(parser);
+        JsonNode normalizedJson = applyFieldMappings(rawJson, plan, partnerId, entityType);
+        objectMapper.writeTree(generator, normalizedJson);
+        return !plan.isFallback();
     }
 
-    private JsonNode applyFieldMappings(JsonNode rawJson, List<FieldMapping> mappings, String partnerId, String entityType) {
+    private JsonNode applyFieldMappings(JsonNode rawJson, FieldMappingPlan plan, String partnerId, String entityType) {
         // Step 1: Basic validation
         if (rawJson == null || rawJson.isEmpty()) {
             throw new IllegalArgumentException("Empty or null data received");
@@ -59,50 +180,182 @@ public class DataNormalizationService {
         }
 
         // Step 2: If no mappings available, return validated raw data
-        if (mappings.isEmpty()) {
+        if (plan.isEmpty()) {
             log.debug("No field mappings found for partner {} entity {}, returning raw data after validation", partnerId, entityType);
             return rawJson;
         }
 
         // Step 3: Apply field mappings
         if (rawJson.isArray()) {
-            return normalizeArray((ArrayNode) rawJson, mappings, partnerId, entityType);
+            return normalizeArray((ArrayNode) rawJson, plan, partnerId, entityType);
         } else {
-            return normalizeObject((ObjectNode) rawJson, mappings, partnerId, entityType);
+            return normalizeObject((ObjectNode) rawJson, plan, partnerId, entityType);
         }
     }
 
-    private JsonNode normalizeArray(ArrayNode rawArray, List<FieldMapping> mappings, String partnerId, String entityType) {
+    private JsonNode normalizeArray(ArrayNode rawArray, FieldMappingPlan plan, String partnerId, String entityType) {
+        NormalizationProperties.Parallel parallel = normalizationProperties.getParallel();
+        if (rawArray.size() >= Math.max(1, parallel.getThreshold()) && normalizationPool.getParallelism() > 1) {
+            return normalizeArrayInParallel(rawArray, plan, partnerId, entityType, Math.max(1, parallel.getChunkSize()));
+        }
+
         ArrayNode normalizedArray = objectMapper.createArrayNode();
 
         for (JsonNode item : rawArray) {
-            if (item.isObject()) {
-                JsonNode normalizedItem = normalizeObject((ObjectNode) item, mappings, partnerId, entityType);
-                normalizedArray.add(normalizedItem);
-            } else {
-                // Keep non-object items as-is
-                normalizedArray.add(item);
-            }
+            normalizedArray.add(normalizeItem(item, plan, partnerId, entityType));
         }
 
         return normalizedArray;
     }
 
-    private JsonNode normalizeObject(ObjectNode rawObject, List<FieldMapping> mappings, String partnerId, String entityType) {
+    /**
+     * Normalizes chunks of the array on the normalization pool. Results are written by index, so
+     * the output keeps the input order. Like the sequential loop, this fails with the error of the
+     * first invalid item in array order, whichever chunk finds an error first.
+     */
+    private JsonNode normalizeArrayInParallel(ArrayNode rawArray, FieldMappingPlan plan, String partnerId,
+                                              String entityType, int chunkSize) {
+        JsonNode[] normalized = new JsonNode[rawArray.size()];
+        AtomicReference<ItemFailure> firstFailure = new AtomicReference<>();
+
+        normalizationPool.invoke(new NormalizeChunk(rawArray, normalized, 0, normalized.length, chunkSize,
+                plan, partnerId, entityType, firstFailure));
+
+        ItemFailure failure = firstFailure.get();
+        if (failure != null) {
+            throw failure.error();
+        }
+        log.debug("Normalized {} {} items for partner {} in chunks of {}", normalized.length, entityType, partnerId, chunkSize);
+        return objectMapper.createArrayNode().addAll(Arrays.asList(normalized));
+    }
+
+    private JsonNode normalizeItem(JsonNode item, FieldMappingPlan plan, String partnerId, String entityType) {
+        // Keep non-object items as-is
+        return item.isObject() ? normalizeObject((ObjectNode) item, plan, partnerId, entityType) : item;
+    }
+
+    /**
+     * Queues a chunk on the normalization pool, first delivering the oldest chunk when every pool
+     * thread already has one. Delivering oldest first keeps the sink in array order, so the first
+     * failure it sees is the one with the lowest index. Without a pool to share the work with, the
+     * chunk is done on the caller thread.
+     */
+    private <T> void submitChunk(List<JsonNode> rawItems, FieldMappingPlan plan, String partnerId, String entityType,
+                                 Deque<ForkJoinTask<NormalizedChunk<T>>> inFlight, ItemSink<T> sink) {
+        if (normalizationPool.getParallelism() <= 1) {
+            normalizeChunk(rawItems, plan, partnerId, entityType, sink).deliver(sink);
+            return;
+        }
+        if (inFlight.size() >= normalizationPool.getParallelism()) {
+            inFlight.removeFirst().join().deliver(sink);
+        }
+        inFlight.addLast(normalizationPool.submit(() -> normalizeChunk(rawItems, plan, partnerId, entityType, sink)));
+    }
+
+    /**
+     * Like the tree path's {@link NormalizeChunk}, any runtime exception counts against its item
+     * only, so one bad item cannot fail the rest of the chunk.
+     */
+    private <T> NormalizedChunk<T> normalizeChunk(List<JsonNode> rawItems, FieldMappingPlan plan, String partnerId,
+                                                  String entityType, ItemSink<T> sink) {
+        List<T> prepared = new ArrayList<>(rawItems.size());
+        String[] errors = new String[rawItems.size()];
+        for (int i = 0; i < errors.length; i++) {
+            JsonNode rawItem = rawItems.get(i);
+            T item = null;
+            try {
+                JsonNode normalizedItem = plan.isEmpty() ? rawItem
+                        : normalizeItem(rawItem, plan, partnerId, entityType);
+                item = sink.prepare(rawItem, normalizedItem);
+            } catch (RuntimeException e) {
+                errors[i] = e.getMessage() != null ? e.getMessage() : e.toString();
+            }
+            prepared.add(item);
+        }
+        return new NormalizedChunk<>(rawItems, prepared, errors);
+    }
+
+    private record NormalizedChunk<T>(List<JsonNode> rawItems, List<T> prepared, String[] errors) {
+
+        void deliver(ItemSink<T> sink) {
+            for (int i = 0; i < errors.length; i++) {
+                if (errors[i] != null) {
+                    sink.failed(rawItems.get(i), errors[i]);
+                } else {
+                    sink.normalized(prepared.get(i));
+                }
+            }
+        }
+    }
+
+    private record ItemFailure(int index, RuntimeException error) {
+    }
+
+    private final class NormalizeChunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ArrayNode rawArray;
+        private final JsonNode[] normalized;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final FieldMappingPlan plan;
+        private final String partnerId;
+        private final String entityType;
+        private final AtomicReference<ItemFailure> firstFailure;
+
+        NormalizeChunk(ArrayNode rawArray, JsonNode[] normalized, int from, int to, int chunkSize,
+                       FieldMappingPlan plan, String partnerId, String entityType,
+                       AtomicReference<ItemFailure> firstFailure) {
+            this.rawArray = rawArray;
+            this.normalized = normalized;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.plan = plan;
+            this.partnerId = partnerId;
+            this.entityType = entityType;
+            this.firstFailure = firstFailure;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > chunkSize) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new NormalizeChunk(rawArray, normalized, from, middle, chunkSize, plan, partnerId, entityType, firstFailure),
+                        new NormalizeChunk(rawArray, normalized, middle, to, chunkSize, plan, partnerId, entityType, firstFailure));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                ItemFailure failure = firstFailure.get();
+                if (failure != null && failure.index() < i) {
+                    return; // the payload already fails on an earlier item
+                }
+                try {
+                    normalized[i] = normalizeItem(rawArray.get(i), plan, partnerId, entityType);
+                } catch (RuntimeException e) {
+                    ItemFailure candidate = new ItemFailure(i, e);
+                    firstFailure.accumulateAndGet(candidate,
+                            (current, next) -> current == null || next.index() < current.index() ? next : current);
+                    return;
+                }
+            }
+        }
+    }
+
+    private JsonNode normalizeObject(ObjectNode rawObject, FieldMappingPlan plan, String partnerId, String entityType) {
         ObjectNode normalizedObject = objectMapper.createObjectNode();
 
-        // Apply field mappings
-        for (FieldMapping mapping : mappings) {
-            String sourceField = mapping.getSourceField();
-            String targetField = mapping.getTargetField();
+        // Apply field mappings slot by slot along their compiled source and target paths
+        for (int slot = 0; slot < plan.size(); slot++) {
+            JsonNode value = plan.read(slot, rawObject);
 
-            if (rawObject.has(sourceField)) {
-                JsonNode value = rawObject.get(sourceField);
-                normalizedObject.set(targetField, value);
-            } else if (mapping.isRequired()) {
+            if (value != null) {
+                plan.write(slot, normalizedObject, value, partnerId, entityType);
+            } else if (plan.isRequired(slot)) {
                 throw new IllegalArgumentException(
                     String.format("Required field '%s' missing in %s data from partner %s",
-                                sourceField, entityType, partnerId));
+                                plan.sourceField(slot), entityType, partnerId));
             }
         }
 
@@ -112,7 +365,7 @@ public class DataNormalizationService {
             return rawObject;
         }
 
-        log.debug("Applied {} field mappings for partner {} entity {}", mappings.size(), partnerId, entityType);
+        log.debug("Applied {} field mappings for partner {} entity {}", plan.size(), partnerId, entityType);
         return normalizedObject;
     }
 }
\ No newline at end of file
@@ -0,0 +1,176 @@
+package com.tms.adapter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.tms.adapter.dto.FieldMapping;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, precompiled form of the field mappings for one (partnerId, entityType).
+ *
+ * Sources, targets and value coercions are compiled into parallel arrays in mapping order, so the
+ * normalizer walks slots by index and follows precomputed {@link FieldPath}s instead of
+ * re-reading {@link FieldMapping} objects or parsing paths per record.
+ */
+public final class FieldMappingPlan {
+
+    private final FieldPath[] sources;
+    private final FieldPath[] targets;
+    private final ValueCoercion[] coercions;
+    private final boolean[] required;
+    private final Map<String, int[]> slotsBySource;
+    private final long version;
+    private final boolean fallback;
+    private final Instant compiledAt;
+
+    private FieldMappingPlan(FieldPath[] sources, FieldPath[] targets, ValueCoercion[] coercions, boolean[] required,
+                             long version, boolean fallback) {
+        this.sources = sources;
+        this.targets = targets;
+        this.coercions = coercions;
+        this.required = required;
+        this.slotsBySource = indexSources(sources);
+        this.version = version;
+        this.fallback = fallback;
+        this.compiledAt = Instant.now();
+    }
+
+    /**
+     * @throws IllegalArgumentException when a mapping has an invalid path or transform
+     */
+    public static FieldMappingPlan compile(List<FieldMapping> mappings, long version) {
+        int size = mappings.size();
+        FieldPath[] sources = new FieldPath[size];
+        FieldPath[] targets = new FieldPath[size];
+        ValueCoercion[] coercions = new ValueCoercion[size];
+        boolean[] required = new boolean[size];
+
+        for (int slot = 0; slot < size; slot++) {
+            FieldMapping mapping = mappings.get(slot);
+            try {
+                sources[slot] = FieldPath.compile(mapping.getSourceField());
+                targets[slot] = FieldPath.compile(mapping.getTargetField());
+                coercions[slot] = ValueCoercion.compile(mapping);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("Invalid field mapping %s -> %s: %s",
+                        mapping.getSourceField(), mapping.getTargetField(), e.getMessage()), e);
+            }
+            required[slot] = mapping.isRequired();
+        }
+
+        return new FieldMappingPlan(sources, targets, coercions, required, version, false);
+    }
+
+    public static FieldMappingPlan empty(long version) {
+        return new FieldMappingPlan(new FieldPath[0], new FieldPath[0], new ValueCoercion[0], new boolean[0],
+                version, false);
+    }
+
+    /**
+     * Empty plan for a payload whose mappings could not be fetched and are not cached.
+     */
+    public static FieldMappingPlan fallback(long version) {
+        return new FieldMappingPlan(new FieldPath[0], new FieldPath[0], new ValueCoercion[0], new boolean[0],
+                version, true);
+    }
+
+    public boolean isEmpty() {
+        return sources.length == 0;
+    }
+
+    /**
+     * @return true when payloads normalized with this plan only had basic validation because the
+     *         mappings were unavailable, so they should be fetched again once the mappings are back
+     */
+    public boolean isFallback() {
+        return fallback;
+    }
+
+    public int size() {
+        return sources.length;
+    }
+
+    public String sourceField(int slot) {
+        return sources[slot].toString();
+    }
+
+    public String targetField(int slot) {
+        return targets[slot].toString();
+    }
+
+    public boolean isRequired(int slot) {
+        return required[slot];
+    }
+
+    /**
+     * @return the slot's source value within {@code object}, or null when it is missing
+     */
+    public JsonNode read(int slot, JsonNode object) {
+        return sources[slot].read(object);
+    }
+
+    /**
+     * @return the slot's source value, given the value of the top-level field its source starts at
+     */
+    public JsonNode readBelowRoot(int slot, JsonNode rootValue) {
+        return sources[slot].readBelowRoot(rootValue);
+    }
+
+    /**
+     * Converts a source value with the slot's transform and sets it at the slot's target.
+     *
+     * @throws IllegalArgumentException when the value cannot be converted, or a required value is null
+     */
+    public void write(int slot, ObjectNode target, JsonNode value, String partnerId, String entityType) {
+        JsonNode converted;
+        try {
+            converted = coercions[slot].apply(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Field '%s' in %s data from partner %s: %s",
+                    sources[slot], entityType, partnerId, e.getMessage()));
+        }
+        if (required[slot] && converted.isNull()) {
+            // Present but null, or blank with a transform, is no better than missing for a required field
+            throw new IllegalArgumentException(String.format(
+                    "Required field '%s' is null or blank in %s data from partner %s",
+                    sources[slot], entityType, partnerId));
+        }
+        targets[slot].write(target, converted);
+    }
+
+    /**
+     * @return the slots whose source starts at the given top-level field, or null when the field is not mapped
+     */
+    public int[] slotsForSource(String sourceField) {
+        return slotsBySource.get(sourceField);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant compiledAt() {
+        return compiledAt;
+    }
+
+    private static Map<String, int[]> indexSources(FieldPath[] sources) {
+        Map<String, int[]> index = new HashMap<>();
+        for (int slot = 0; slot < sources.length; slot++) {
+            String root = sources[slot].root();
+            int[] slots = index.get(root);
+            if (slots == null) {
+                index.put(root, new int[]{slot});
+            } else {
+                int[] extended = Arrays.copyOf(slots, slots.length + 1);
+                extended[slots.length] = slot;
+                index.put(root, extended);
+            }
+        }
+        return Map.copyOf(index);
+    }
+}
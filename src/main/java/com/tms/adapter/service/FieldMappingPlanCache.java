@@ -0,0 +1,87 @@
+package com.tms.adapter.service;
+
+import com.tms.adapter.client.ConfigServiceClient;
+import com.tms.adapter.config.FieldMappingCacheProperties;
+import com.tms.adapter.config.PipelineMetrics;
+import com.tms.adapter.dto.FieldMapping;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches compiled {@link FieldMappingPlan}s per (partnerId, entityType).
+ *
+ * Invalidation is versioned: {@link #invalidateAll()} bumps the cache version, and plans compiled
+ * under an older version are recompiled lazily on next use instead of being evicted eagerly.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FieldMappingPlanCache {
+
+    private final ConfigServiceClient configServiceClient;
+    private final FieldMappingCacheProperties properties;
+    private final PipelineMetrics pipelineMetrics;
+
+    private final Map<String, FieldMappingPlan> plans = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public FieldMappingPlan getPlan(String partnerId, String entityType) {
+        String key = key(partnerId, entityType);
+        FieldMappingPlan cached = plans.get(key);
+        if (cached != null && isCurrent(cached)) {
+            return cached;
+        }
+
+        long compileVersion = version.get();
+        List<FieldMapping> mappings;
+        try {
+            mappings = pipelineMetrics.timeConfigService("field-mappings",
+                    () -> configServiceClient.getFieldMappings(partnerId, entityType));
+        } catch (Exception e) {
+            if (cached != null) {
+                log.warn("Could not refresh field mappings for partner {} entity {}, using plan compiled at {}: {}",
+                        partnerId, entityType, cached.compiledAt(), e.getMessage());
+                return cached;
+            }
+            // Not cached, so the next payload retries the config service
+            log.warn("Could not fetch field mappings for partner {} entity {}: {}", partnerId, entityType, e.getMessage());
+            return FieldMappingPlan.fallback(compileVersion); // Basic validation only
+        }
+
+        // Invalid mappings fail the payload rather than letting it through unmapped
+        FieldMappingPlan plan = mappings == null || mappings.isEmpty()
+                ? FieldMappingPlan.empty(compileVersion)
+                : FieldMappingPlan.compile(mappings, compileVersion);
+        plans.put(key, plan);
+        log.debug("Compiled {} field mappings for partner {} entity {}", plan.size(), partnerId, entityType);
+        return plan;
+    }
+
+    public void invalidateAll() {
+        long newVersion = version.incrementAndGet();
+        log.info("Field mapping plans invalidated, cache version is now {}", newVersion);
+    }
+
+    public void invalidate(String partnerId) {
+        String prefix = partnerId + "|";
+        plans.keySet().removeIf(key -> key.startsWith(prefix));
+        log.info("Field mapping plans invalidated for partner {}", partnerId);
+    }
+
+    private boolean isCurrent(FieldMappingPlan plan) {
+        return plan.version() == version.get()
+                && Duration.between(plan.compiledAt(), Instant.now()).compareTo(properties.getTtl()) < 0;
+    }
+
+    private static String key(String partnerId, String entityType) {
+        return partnerId + "|" + entityType;
+    }
+}
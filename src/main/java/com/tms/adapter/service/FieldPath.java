@@ -0,0 +1,147 @@
+package com.tms.adapter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A field mapping path, compiled once per plan: a plain top-level field name, or a JSON pointer
+ * (RFC 6901) such as {@code /venue/address/city} or {@code /prices/0/amount}.
+ *
+ * Pointer tokens are unescaped and array indexes parsed up front, so reading and writing walk the
+ * precomputed tokens without parsing or allocating per record. Array indexes apply when reading;
+ * when writing, every token names an object field.
+ */
+public final class FieldPath {
+
+    private final String expression;
+    private final String[] tokens;
+    // Array index per token, -1 when the token is not a valid index
+    private final int[] indexes;
+
+    private FieldPath(String expression, String[] tokens) {
+        this.expression = expression;
+        this.tokens = tokens;
+        this.indexes = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            indexes[i] = arrayIndex(tokens[i]);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException for an empty path or a malformed pointer escape
+     */
+    public static FieldPath compile(String expression) {
+        if (expression == null || expression.isEmpty()) {
+            throw new IllegalArgumentException("Field path must not be empty");
+        }
+        if (expression.charAt(0) != '/') {
+            return new FieldPath(expression, new String[]{expression});
+        }
+
+        List<String> tokens = new ArrayList<>();
+        int start = 1;
+        while (true) {
+            int end = expression.indexOf('/', start);
+            tokens.add(unescape(expression, expression.substring(start, end < 0 ? expression.length() : end)));
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+        return new FieldPath(expression, tokens.toArray(String[]::new));
+    }
+
+    /**
+     * The top-level field the path starts at.
+     */
+    public String root() {
+        return tokens[0];
+    }
+
+    public boolean isNested() {
+        return tokens.length > 1;
+    }
+
+    /**
+     * @return the value at this path within {@code object}, or null when any step is missing
+     */
+    public JsonNode read(JsonNode object) {
+        return readFrom(object, 0);
+    }
+
+    /**
+     * @return the value at this path, given the value of its {@link #root()} field
+     */
+    public JsonNode readBelowRoot(JsonNode rootValue) {
+        return rootValue == null ? null : readFrom(rootValue, 1);
+    }
+
+    /**
+     * Sets the value at this path, creating intermediate objects. An intermediate value that is
+     * not an object is replaced, so a later mapping wins as it does for flat fields.
+     */
+    public void write(ObjectNode target, JsonNode value) {
+        ObjectNode parent = target;
+        for (int i = 0; i < tokens.length - 1; i++) {
+            JsonNode child = parent.get(tokens[i]);
+            if (child instanceof ObjectNode object) {
+                parent = object;
+            } else {
+                parent = parent.putObject(tokens[i]);
+            }
+        }
+        parent.set(tokens[tokens.length - 1], value);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private JsonNode readFrom(JsonNode node, int from) {
+        JsonNode current = node;
+        for (int i = from; i < tokens.length && current != null; i++) {
+            if (current.isObject()) {
+                current = current.get(tokens[i]);
+            } else if (current.isArray() && indexes[i] >= 0) {
+                current = current.get(indexes[i]);
+            } else {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    private static String unescape(String expression, String token) {
+        if (token.indexOf('~') < 0) {
+            return token;
+        }
+        StringBuilder unescaped = new StringBuilder(token.length());
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c != '~') {
+                unescaped.append(c);
+            } else if (i + 1 < token.length() && (token.charAt(i + 1) == '0' || token.charAt(i + 1) == '1')) {
+                unescaped.append(token.charAt(++i) == '0' ? '~' : '/');
+            } else {
+                throw new IllegalArgumentException("Invalid escape in JSON pointer '" + expression + "'");
+            }
+        }
+        return unescaped.toString();
+    }
+
+    private static int arrayIndex(String token) {
+        if (token.isEmpty() || token.length() > 9 || (token.length() > 1 && token.charAt(0) == '0')) {
+            return -1;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) < '0' || token.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        return Integer.parseInt(token);
+    }
+}
@@ -0,0 +1,193 @@
+package com.tms.adapter.service;
+
+import com.tms.adapter.entity.JobDailySummary;
+import com.tms.adapter.entity.JobExecution;
+import com.tms.adapter.entity.JobPartnerSummary;
+import com.tms.adapter.repository.JobDailySummaryRepository;
+import com.tms.adapter.repository.JobExecutionRepository;
+import com.tms.adapter.repository.JobPartnerSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records job executions together with the per-day and per-partner summaries derived from them.
+ *
+ * The execution row and both summaries are written in one transaction. Only the partner's own
+ * summary row is locked for the read-modify-write, so polls of different partners do not wait on
+ * each other; the daily totals are then moved by the resulting deltas in one in-place update,
+ * always last, so the shared row is held only until commit and lock order cannot deadlock.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobSummaryService {
+
+    private final JobExecutionRepository jobExecutionRepository;
+    private final JobDailySummaryRepository jobDailySummaryRepository;
+    private final JobPartnerSummaryRepository jobPartnerSummaryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile LocalDate lastEnsuredDate;
+    // Partner id -> latest job date its summary row is known to exist for
+    private final Map<String, LocalDate> ensuredPartnerDates = new ConcurrentHashMap<>();
+
+    public static String overallStatus(long successful, long failed) {
+        if (failed == 0) {
+            return "SUCCESS";
+        } else if (successful == 0) {
+            return "FAILED";
+        }
+        return "PARTIAL";
+    }
+
+    public void record(JobExecution execution) {
+        ensureDailySummary(execution.getJobDate());
+        ensurePartnerSummary(execution.getJobDate(), execution.getPartnerId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jobExecutionRepository.save(execution);
+
+            JobPartnerSummary partner = jobPartnerSummaryRepository
+                    .findForUpdate(execution.getJobDate(), execution.getPartnerId())
+                    .orElseThrow(() -> new IllegalStateException("Partner summary missing for "
+                            + execution.getPartnerId() + " on " + execution.getJobDate()));
+
+            String previousStatus = partner.getOverallStatus();
+            apply(partner, execution);
+            String currentStatus = partner.getOverallStatus();
+            jobPartnerSummaryRepository.save(partner);
+
+            // A row still without a status was created for this execution and is counted now
+            int partners = previousStatus == null ? 1 : 0;
+            int successful = statusDelta("SUCCESS", previousStatus, currentStatus);
+            int failed = statusDelta("FAILED", previousStatus, currentStatus);
+            int updated = jobDailySummaryRepository.increment(execution.getJobDate(), partners, successful, failed,
+                    Instant.now());
+            if (updated == 0) {
+                throw new IllegalStateException("Daily summary missing for " + execution.getJobDate());
+            }
+        });
+    }
+
+    public Optional<JobDailySummary> findDailySummary(LocalDate jobDate) {
+        return jobDailySummaryRepository.findById(jobDate);
+    }
+
+    public Optional<JobDailySummary> findLatestDailySummary() {
+        return jobDailySummaryRepository.findFirstByOrderByJobDateDesc();
+    }
+
+    public Optional<JobPartnerSummary> findPartnerSummary(LocalDate jobDate, String partnerId) {
+        return jobPartnerSummaryRepository.findByJobDateAndPartnerId(jobDate, partnerId);
+    }
+
+    public List<JobPartnerSummary> findPartnerSummaries(LocalDate jobDate) {
+        return jobPartnerSummaryRepository.findByJobDateAndOverallStatusIsNotNullOrderByPartnerId(jobDate);
+    }
+
+    private void apply(JobPartnerSummary partner, JobExecution execution) {
+        if ("SUCCESS".equals(execution.getStatus())) {
+            partner.setSuccessfulEntities(partner.getSuccessfulEntities() + 1);
+        } else if ("FAILED".equals(execution.getStatus())) {
+            partner.setFailedEntities(partner.getFailedEntities() + 1);
+            partner.setFailedEntityTypes(withFailedType(partner.getFailedEntityTypes(), execution.getEntityType()));
+        }
+        if (execution.getRecordsProcessed() != null) {
+            partner.setRecordsProcessed(partner.getRecordsProcessed() + execution.getRecordsProcessed());
+        }
+        partner.setOverallStatus(overallStatus(partner.getSuccessfulEntities(), partner.getFailedEntities()));
+        partner.setLastUpdated(Instant.now());
+    }
+
+    /**
+     * Moves the entity type to the front of the list, so every type appears once however often a
+     * partner fails in a day. The oldest types are dropped rather than outgrow the column, which
+     * would fail the whole record() transaction.
+     */
+    private static String withFailedType(String failedTypes, String entityType) {
+        StringBuilder types = new StringBuilder(entityType);
+        if (failedTypes != null && !failedTypes.isEmpty()) {
+            for (String type : failedTypes.split(",")) {
+                if (type.equals(entityType)) {
+                    continue;
+                }
+                if (types.length() + 1 + type.length() > JobPartnerSummary.FAILED_ENTITY_TYPES_LENGTH) {
+                    break;
+                }
+                types.append(',').append(type);
+            }
+        }
+        return types.length() > JobPartnerSummary.FAILED_ENTITY_TYPES_LENGTH
+                ? types.substring(0, JobPartnerSummary.FAILED_ENTITY_TYPES_LENGTH) : types.toString();
+    }
+
+    private static int statusDelta(String status, String previousStatus, String currentStatus) {
+        return (status.equals(currentStatus) ? 1 : 0) - (status.equals(previousStatus) ? 1 : 0);
+    }
+
+    private void ensureDailySummary(LocalDate jobDate) {
+        if (jobDate.equals(lastEnsuredDate)) {
+            return;
+        }
+        // Local polls wait here instead of racing each other into the unique key
+        synchronized (this) {
+            if (!jobDate.equals(lastEnsuredDate)) {
+                createDailySummary(jobDate);
+                lastEnsuredDate = jobDate;
+            }
+        }
+    }
+
+    private void createDailySummary(LocalDate jobDate) {
+        if (jobDailySummaryRepository.existsById(jobDate)) {
+            return;
+        }
+        try {
+            // Committed on its own so the row is visible to the update in record()
+            transactionTemplate.executeWithoutResult(status ->
+                    jobDailySummaryRepository.saveAndFlush(JobDailySummary.builder().jobDate(jobDate).build()));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the row first
+            log.debug("Daily summary for {} created concurrently", jobDate);
+        }
+    }
+
+    /**
+     * Makes sure the partner's row for the day exists before record() locks it. Lanes of one
+     * partner wait for each other here like polls do for the daily row, so only another instance
+     * can race into the unique key.
+     */
+    private void ensurePartnerSummary(LocalDate jobDate, String partnerId) {
+        if (jobDate.equals(ensuredPartnerDates.get(partnerId))) {
+            return;
+        }
+        synchronized (ensuredPartnerDates) {
+            if (!jobDate.equals(ensuredPartnerDates.get(partnerId))) {
+                createPartnerSummary(jobDate, partnerId);
+                ensuredPartnerDates.put(partnerId, jobDate);
+            }
+        }
+    }
+
+    private void createPartnerSummary(LocalDate jobDate, String partnerId) {
+        if (jobPartnerSummaryRepository.existsByJobDateAndPartnerId(jobDate, partnerId)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jobPartnerSummaryRepository.saveAndFlush(
+                    JobPartnerSummary.builder().jobDate(jobDate).partnerId(partnerId).build()));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Summary of partner {} for {} created concurrently", partnerId, jobDate);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.tms.adapter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.adapter.config.LoadTestFaultInjector;
+import com.tms.adapter.config.LoadTestProperties;
+import com.tms.adapter.dto.LoadTestReport;
+import com.tms.adapter.dto.PollingRunSummary;
+import com.tms.adapter.repository.StagingRecordRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link PartnerPollingService#pollAllPartners()} against the synthetic partners of the
+ * {@code loadtest} profile once the application is up, and reports throughput, per-stage
+ * p50/p99, heap peak and run time.
+ *
+ * Percentiles come from the tms.* histogram buckets, so they are bucket upper bounds rather
+ * than exact values.
+ */
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+@Slf4j
+public class LoadTestRunner {
+
+    private static final List<String> STAGES = List.of(
+            "tms.config.service", "tms.partner.fetch", "tms.normalization", "tms.staging.insert");
+
+    private final PartnerPollingService partnerPollingService;
+    private final StagingRecordRepository stagingRecordRepository;
+    private final LoadTestFaultInjector faultInjector;
+    private final LoadTestProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final ApplicationContext applicationContext;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void runLoadTest() throws IOException {
+        boolean withinLimit = true;
+        LoadTestReport report = null;
+        for (int run = 1; run <= properties.getRuns(); run++) {
+            report = runOnce(run);
+            log.info(format(report));
+            if (properties.getMaxRunTime() != null && report.getDurationMs() > properties.getMaxRunTime().toMillis()) {
+                log.error("Load test run {} took {} ms, above the limit of {}",
+                        run, report.getDurationMs(), properties.getMaxRunTime());
+                withinLimit = false;
+            }
+        }
+
+        if (report != null && properties.getReportFile() != null) {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(Path.of(properties.getReportFile()).toFile(), report);
+            log.info("Load test report written to {}", properties.getReportFile());
+        }
+
+        if (properties.isExitWhenDone()) {
+            int exitCode = withinLimit ? 0 : 1;
+            System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+        }
+    }
+
+    private LoadTestReport runOnce(int run) {
+        Map<String, StageSnapshot> stagesBefore = new LinkedHashMap<>();
+        STAGES.forEach(stage -> stagesBefore.put(stage, StageSnapshot.of(meterRegistry, stage)));
+        double itemsBefore = summaryTotal("tms.payload.items");
+        double bytesBefore = summaryTotal("tms.payload.bytes");
+        long recordsBefore = stagingRecordRepository.count();
+        long errorsBefore = faultInjector.injectedErrors();
+        long throttlesBefore = faultInjector.injectedThrottles();
+
+        // Start each run from a collected heap so that peaks are comparable
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long start = System.nanoTime();
+        partnerPollingService.pollAllPartners();
+        long durationNanos = System.nanoTime() - start;
+
+        long heapPeak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        PollingRunSummary summary = partnerPollingService.getLastRunSummary();
+        long items = (long) (summaryTotal("tms.payload.items") - itemsBefore);
+        long bytes = (long) (summaryTotal("tms.payload.bytes") - bytesBefore);
+        double seconds = durationNanos / 1e9;
+
+        Map<String, LoadTestReport.StageLatency> stages = new LinkedHashMap<>();
+        stagesBefore.forEach((stage, before) ->
+                stages.put(stage, StageSnapshot.of(meterRegistry, stage).since(before)));
+
+        return LoadTestReport.builder()
+                .run(run)
+                .partners(summary.getTotalPartners())
+                .itemsPerPayload(properties.getItems())
+                .durationMs(TimeUnit.NANOSECONDS.toMillis(durationNanos))
+                .successfulPolls(summary.getSuccessfulPolls())
+                .failedPolls(summary.getFailedPolls())
+                .skippedPolls(summary.getSkippedPolls())
+                .itemsReceived(items)
+                .bytesReceived(bytes)
+                .recordsStaged(stagingRecordRepository.count() - recordsBefore)
+                .itemsPerSecond(round(items / seconds))
+                .megabytesPerSecond(round(bytes / seconds / (1024 * 1024)))
+                .heapPeakMb(heapPeak / (1024 * 1024))
+                .injectedErrors(faultInjector.injectedErrors() - errorsBefore)
+                .injectedThrottles(faultInjector.injectedThrottles() - throttlesBefore)
+                .stages(stages)
+                .build();
+    }
+
+    private double summaryTotal(String name) {
+        return meterRegistry.find(name).summaries().stream().mapToDouble(DistributionSummary::totalAmount).sum();
+    }
+
+    private static String format(LoadTestReport report) {
+        StringBuilder text = new StringBuilder()
+                .append(String.format("Load test run %d: %d partners x %d items in %d ms%n",
+                        report.getRun(), report.getPartners(), report.getItemsPerPayload(), report.getDurationMs()))
+                .append(String.format("  polls: %d ok, %d failed, %d skipped (injected %d errors, %d throttles)%n",
+                        report.getSuccessfulPolls(), report.getFailedPolls(), report.getSkippedPolls(),
+                        report.getInjectedErrors(), report.getInjectedThrottles()))
+                .append(String.format("  throughput: %d items (%.2f/s), %.2f MB/s, %d records staged%n",
+                        report.getItemsReceived(), report.getItemsPerSecond(), report.getMegabytesPerSecond(),
+                        report.getRecordsStaged()))
+                .append(String.format("  heap peak: %d MB%n", report.getHeapPeakMb()));
+        report.getStages().forEach((stage, latency) -> text.append(String.format(
+                "  %-20s count %6d  mean %8.2f ms  p50 <= %s ms  p99 <= %s ms%n", stage, latency.getCount(),
+                latency.getMeanMs(), bound(latency.getP50Ms()), bound(latency.getP99Ms()))));
+        return text.toString().stripTrailing();
+    }
+
+    private static String bound(Double millis) {
+        return millis != null ? String.format("%.1f", millis) : "max";
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    /**
+     * A stage's timers summed over all partners and entity types. The histogram counts of the
+     * Prometheus registry are cumulative, so two snapshots can simply be subtracted.
+     */
+    private record StageSnapshot(long count, double totalMs, TreeMap<Double, Double> buckets) {
+
+        static StageSnapshot of(MeterRegistry registry, String name) {
+            long count = 0;
+            double totalMs = 0;
+            TreeMap<Double, Double> buckets = new TreeMap<>();
+            for (Timer timer : registry.find(name).timers()) {
+                HistogramSnapshot snapshot = timer.takeSnapshot();
+                count += snapshot.count();
+                totalMs += snapshot.total(TimeUnit.MILLISECONDS);
+                for (CountAtBucket bucket : snapshot.histogramCounts()) {
+                    buckets.merge(bucket.bucket(TimeUnit.MILLISECONDS), bucket.count(), Double::sum);
+                }
+            }
+            return new StageSnapshot(count, totalMs, buckets);
+        }
+
+        LoadTestReport.StageLatency since(StageSnapshot before) {
+            long delta = count - before.count;
+            return LoadTestReport.StageLatency.builder()
+                    .count(delta)
+                    .meanMs(delta > 0 ? round((totalMs - before.totalMs) / delta) : 0)
+                    .p50Ms(delta > 0 ? percentile(before, delta, 0.5) : null)
+                    .p99Ms(delta > 0 ? percentile(before, delta, 0.99) : null)
+                    .build();
+        }
+
+        private Double percentile(StageSnapshot before, long delta, double quantile) {
+            for (Map.Entry<Double, Double> bucket : buckets.entrySet()) {
+                double observed = bucket.getValue() - before.buckets.getOrDefault(bucket.getKey(), 0.0);
+                if (observed >= quantile * delta) {
+                    return round(bucket.getKey());
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.tms.adapter.service;
+
+import com.tms.adapter.client.PartnerConfigCache;
+import com.tms.adapter.config.ShardingProperties;
+import com.tms.adapter.dto.PartnerConfig;
+import com.tms.adapter.entity.AdapterInstance;
+import com.tms.adapter.entity.PartnerLease;
+import com.tms.adapter.repository.AdapterInstanceRepository;
+import com.tms.adapter.repository.PartnerLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Splits partners across adapter instances that share the datasource, through leases in
+ * {@code partner_leases}.
+ *
+ * On every heartbeat an instance renews the leases it holds and works out its fair share,
+ * ceil(partners / live instances). Below it, the instance claims expired leases, which is how the
+ * partners of a crashed instance are taken over once its leases run out. Above it, e.g. after
+ * another instance joined, it releases leases it is not currently polling. An instance only
+ * polls partners it holds a lease for.
+ */
+@Component
+@Slf4j
+public class PartnerLeaseManager {
+
+    private final PartnerLeaseRepository leaseRepository;
+    private final AdapterInstanceRepository instanceRepository;
+    private final PartnerConfigCache partnerConfigCache;
+    private final ShardingProperties properties;
+    private final String instanceId;
+
+    // Partner -> local time until which this instance may poll it
+    private final Map<String, Instant> held = new ConcurrentHashMap<>();
+    // Partners being polled right now; never released while pinned
+    private final Set<String> pinned = new HashSet<>();
+    // Partners known to have a lease row
+    private final Set<String> knownLeases = ConcurrentHashMap.newKeySet();
+
+    private Instant startedAt;
+
+    public PartnerLeaseManager(PartnerLeaseRepository leaseRepository, AdapterInstanceRepository instanceRepository,
+                               PartnerConfigCache partnerConfigCache, ShardingProperties properties) {
+        this.leaseRepository = leaseRepository;
+        this.instanceRepository = instanceRepository;
+        this.partnerConfigCache = partnerConfigCache;
+        this.properties = properties;
+        this.instanceId = properties.getInstanceId() != null && !properties.getInstanceId().isBlank()
+                ? properties.getInstanceId() : generateInstanceId();
+        if (properties.isEnabled()) {
+            log.info("Partner sharding enabled, instance id {}", instanceId);
+        }
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Whether this instance currently holds the partner's lease. Always true without sharding.
+     */
+    public boolean holds(String partnerId) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        Instant until = held.get(partnerId);
+        return until != null && Instant.now().isBefore(until);
+    }
+
+    /**
+     * Keeps the partner's lease from being released for rebalancing until {@link #unpin}.
+     *
+     * @return false when this instance does not hold the lease and must not poll the partner
+     */
+    public synchronized boolean pin(String partnerId) {
+        if (!holds(partnerId)) {
+            return false;
+        }
+        pinned.add(partnerId);
+        return true;
+    }
+
+    public synchronized void unpin(String partnerId) {
+        pinned.remove(partnerId);
+    }
+
+    public Set<String> heldPartners() {
+        return Set.copyOf(held.keySet());
+    }
+
+    @Scheduled(fixedDelayString = "${sharding.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            Instant now = Instant.now();
+            Instant expiresAt = now.plus(properties.getLeaseDuration());
+            registerInstance(now);
+            leaseRepository.renewAll(instanceId, now, expiresAt);
+
+            List<PartnerConfig> partners = partnerConfigCache.getActivePartners();
+            partners.forEach(partner -> ensureLease(partner.getPartnerId()));
+
+            long instances = Math.max(1, instanceRepository.countByHeartbeatAtAfter(now.minus(properties.getLeaseDuration())));
+            int fairShare = (int) ((partners.size() + instances - 1) / instances);
+            Set<String> current = new HashSet<>(leaseRepository.findHeldPartnerIds(instanceId, now));
+
+            if (current.size() < fairShare) {
+                claim(current, fairShare, now, expiresAt);
+            } else if (current.size() > fairShare) {
+                release(current, fairShare, now);
+            }
+
+            // Local validity ends a little before the recorded expiry, so that clock skew between
+            // instances cannot let two of them poll the same partner
+            Instant validUntil = expiresAt.minus(properties.getClockSkewMargin());
+            held.keySet().retainAll(current);
+            current.forEach(partnerId -> held.put(partnerId, validUntil));
+
+            instanceRepository.deleteByHeartbeatAtBefore(now.minus(properties.getLeaseDuration().multipliedBy(10)));
+        } catch (Exception e) {
+            // Held leases lapse locally on their own if heartbeats keep failing
+            log.warn("Partner lease heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private void claim(Set<String> current, int fairShare, Instant now, Instant expiresAt) {
+        List<String> expired = new ArrayList<>(leaseRepository.findExpiredPartnerIds(now));
+        // Instances catching up at the same moment then mostly go for different leases
+        Collections.shuffle(expired);
+        List<String> claimed = new ArrayList<>();
+        for (String partnerId : expired) {
+            if (current.size() >= fairShare) {
+                break;
+            }
+            if (leaseRepository.claim(partnerId, instanceId, now, expiresAt) == 1) {
+                current.add(partnerId);
+                claimed.add(partnerId);
+            }
+        }
+        if (!claimed.isEmpty()) {
+            log.info("Instance {} claimed partner leases {}, now holding {} (fair share {})",
+                    instanceId, claimed, current.size(), fairShare);
+        }
+    }
+
+    private synchronized void release(Set<String> current, int fairShare, Instant now) {
+        List<String> released = new ArrayList<>();
+        for (String partnerId : List.copyOf(current)) {
+            if (current.size() <= fairShare) {
+                break;
+            }
+            if (pinned.contains(partnerId)) {
+                continue;
+            }
+            held.remove(partnerId);
+            leaseRepository.release(partnerId, instanceId, now);
+            current.remove(partnerId);
+            released.add(partnerId);
+        }
+        if (!released.isEmpty()) {
+            log.info("Instance {} released partner leases {} for rebalancing, now holding {} (fair share {})",
+                    instanceId, released, current.size(), fairShare);
+        }
+    }
+
+    private void registerInstance(Instant now) {
+        if (instanceRepository.heartbeat(instanceId, now) == 0) {
+            if (startedAt == null) {
+                startedAt = now;
+            }
+            instanceRepository.saveAndFlush(AdapterInstance.builder()
+                    .instanceId(instanceId)
+                    .heartbeatAt(now)
+                    .startedAt(startedAt)
+                    .build());
+        }
+    }
+
+    private void ensureLease(String partnerId) {
+        if (knownLeases.contains(partnerId)) {
+            return;
+        }
+        if (!leaseRepository.existsById(partnerId)) {
+            try {
+                leaseRepository.saveAndFlush(PartnerLease.builder()
+                        .partnerId(partnerId)
+                        .expiresAt(Instant.EPOCH)
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Lease for partner {} was created by another instance", partnerId);
+            }
+        }
+        knownLeases.add(partnerId);
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // Lets the remaining instances take over at their next heartbeat instead of after expiry
+        try {
+            held.clear();
+            int released = leaseRepository.releaseAll(instanceId, Instant.now());
+            instanceRepository.deleteById(instanceId);
+            log.info("Instance {} released {} partner leases on shutdown", instanceId, released);
+        } catch (Exception e) {
+            log.warn("Could not release partner leases on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private static String generateInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "adapter";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -1,85 +1,192 @@
 package com.tms.adapter.service;
 
-import com.tms.adapter.client.ConfigServiceClient;
+import com.tms.adapter.client.ConditionalRequestStore;
 import com.tms.adapter.client.PartnerApiClient;
+import com.tms.adapter.client.PartnerConfigCache;
+import com.tms.adapter.client.PartnerUnavailableException;
+import com.tms.adapter.client.PayloadHandler;
 import com.tms.adapter.dto.PartnerConfig;
+import com.tms.adapter.dto.PollingRunSummary;
 import com.tms.adapter.entity.JobExecution;
-import com.tms.adapter.entity.StagingRecord;
-import com.tms.adapter.repository.JobExecutionRepository;
-import com.tms.adapter.repository.StagingRecordRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PartnerPollingService {
 
-    private final ConfigServiceClient configServiceClient;
-    private final PartnerApiClient partnerApiClient;
-    private final StagingRecordRepository stagingRecordRepository;
-    private final JobExecutionRepository jobExecutionRepository;
-    private final DataNormalizationService dataNormalizationService;
+    static final List<String> ENTITY_TYPES = List.of("THEATRE", "HALL", "SHOW");
 
-    @Scheduled(cron = "0 0 2 * * *")
+    private final PartnerConfigCache partnerConfigCache;
+    private final PartnerApiClient partnerApiClient;
+    private final JobSummaryService jobSummaryService;
+    private final StagingService stagingService;
+    private final PollingEngine pollingEngine;
+    private final ConditionalRequestStore conditionalRequestStore;
+    private final PartnerLeaseManager partnerLeaseManager;
+
+    // Partners with a poll in progress; a partner is never polled by two runs at once
+    private final Set<String> partnersInFlight = ConcurrentHashMap.newKeySet();
+
+    private volatile PollingRunSummary lastRunSummary;
+
+    /**
+     * Polls every partner and entity type this instance holds the lease for (see
+     * {@link PartnerLeaseManager}). Partners already being polled, e.g. by
+     * {@link PollingScheduler}, are left out of this run.
+     */
+    @Scheduled(cron = "${polling.full-run-cron:-}")
     public void pollAllPartners() {
-        List<PartnerConfig> activePartners = configServiceClient.getActivePartners();
+        List<PartnerConfig> partners = partnerConfigCache.refreshNow();
+        List<String> partnerIds = new ArrayList<>();
+        for (PartnerConfig partner : partners) {
+            if (claim(partner.getPartnerId())) {
+                partnerIds.add(partner.getPartnerId());
+            }
+        }
+        if (partnerIds.size() < partners.size()) {
+            log.info("Full run covers {} of {} partners, the others are leased to other instances or already being polled",
+                    partnerIds.size(), partners.size());
+        }
+
+        // Each partner is unclaimed by the engine once its lanes have ended, see poll
+        lastRunSummary = poll(partnerIds, ENTITY_TYPES);
+    }
 
-        for (PartnerConfig partner : activePartners) {
-            pollPartnerData(partner.getPartnerId());
+    /**
+     * Polls the given entity types of one partner.
+     *
+     * @return the run summary, or empty when the partner is already being polled or leased to another instance
+     */
+    public Optional<PollingRunSummary> pollPartner(String partnerId, List<String> entityTypes) {
+        if (!claim(partnerId)) {
+            return Optional.empty();
         }
+        return Optional.of(poll(List.of(partnerId), entityTypes));
+    }
+
+    private boolean claim(String partnerId) {
+        if (!partnerLeaseManager.pin(partnerId)) {
+            return false;
+        }
+        if (!partnersInFlight.add(partnerId)) {
+            partnerLeaseManager.unpin(partnerId);
+            log.debug("Partner {} is already being polled", partnerId);
+            return false;
+        }
+        return true;
+    }
+
+    private void unclaim(String partnerId) {
+        partnersInFlight.remove(partnerId);
+        partnerLeaseManager.unpin(partnerId);
     }
 
-    private void pollPartnerData(String partnerId) {
-        log.info("Starting {} data polling", partnerId);
+    /**
+     * Polls claimed partners and unclaims each one when its last lane ends. A lane cancelled at the
+     * run deadline can outlive the run, and its partner stays claimed until it has returned.
+     */
+    private PollingRunSummary poll(List<String> partnerIds, List<String> entityTypes) {
         LocalDate today = LocalDate.now();
 
-        // Track individual entity type polling
-        pollEntityData(partnerId, "THEATRE", today);
-        pollEntityData(partnerId, "HALL", today);
-        pollEntityData(partnerId, "SHOW", today);
+        // Partners and entity types are polled concurrently, see PollingEngine
+        return pollingEngine.run(partnerIds, entityTypes,
+                (partnerId, entityType) -> pollEntityData(partnerId, entityType, today),
+                partnerId -> {
+                    try {
+                        logPartnerSummary(partnerId, today);
+                    } finally {
+                        unclaim(partnerId);
+                    }
+                });
+    }
 
-        // Log overall partner summary
-        long successCount = jobExecutionRepository.findByPartnerIdAndJobDateOrderByExecutionTimeDesc(partnerId, today)
-                .stream().filter(je -> "SUCCESS".equals(je.getStatus())).count();
-        long failureCount = jobExecutionRepository.findByPartnerIdAndJobDateOrderByExecutionTimeDesc(partnerId, today)
-                .stream().filter(je -> "FAILED".equals(je.getStatus())).count();
+    public PollingRunSummary getLastRunSummary() {
+        return lastRunSummary;
+    }
 
-        log.info("Partner {} daily summary: {} success, {} failures", partnerId, successCount, failureCount);
+    private void logPartnerSummary(String partnerId, LocalDate today) {
+        // Log overall partner summary, maintained incrementally by recordJobExecution
+        jobSummaryService.findPartnerSummary(today, partnerId).ifPresent(summary ->
+                log.info("Partner {} daily summary: {} success, {} failures",
+                        partnerId, summary.getSuccessfulEntities(), summary.getFailedEntities()));
     }
 
-    private void pollEntityData(String partnerId, String entityType, LocalDate jobDate) {
+    private boolean pollEntityData(String partnerId, String entityType, LocalDate jobDate) {
+        if (!partnerLeaseManager.holds(partnerId)) {
+            // Heartbeats failed for longer than the lease, another instance may be polling the partner by now
+            log.warn("Skipping {} polling for partner {}: partner lease lost", entityType, partnerId);
+            return false;
+        }
         Instant startTime = Instant.now();
 
         try {
             log.info("Fetching {} data for partner {}", entityType, partnerId);
 
-            String data = switch (entityType) {
-                case "THEATRE" -> partnerApiClient.fetchTheatreData(partnerId);
-                case "HALL" -> partnerApiClient.fetchHallData(partnerId);
-                case "SHOW" -> partnerApiClient.fetchShowData(partnerId);
+            // The response body streams through normalization into staging while the connection is open
+            PayloadHandler<StagingService.StagingOutcome> stage =
+                    body -> stagingService.stage(partnerId, entityType, body);
+
+            List<StagingService.StagingOutcome> pageOutcomes = switch (entityType) {
+                case "THEATRE" -> partnerApiClient.fetchTheatreData(partnerId, stage);
+                case "HALL" -> partnerApiClient.fetchHallData(partnerId, stage);
+                case "SHOW" -> partnerApiClient.fetchShowData(partnerId, stage);
                 default -> throw new IllegalArgumentException("Unknown entity type: " + entityType);
             };
-
-            saveToStaging(partnerId, entityType, data);
-
-            // Record successful execution
-            recordJobExecution(partnerId, entityType, jobDate, "SUCCESS", 1, null, startTime);
+            // Paged endpoints stage one batch per page
+            StagingService.StagingOutcome outcome = pageOutcomes.stream()
+                    .reduce(StagingService.StagingOutcome.NONE, StagingService.StagingOutcome::plus);
+
+            if (pageOutcomes.isEmpty()) {
+                log.info("No {} changes from partner {} since the last poll", entityType, partnerId);
+            }
+
+            if (outcome.mappingsUnavailable()) {
+                // Staged with basic validation only; without the validators the next poll maps the payload again
+                conditionalRequestStore.forget(partnerId);
+                log.warn("{} data from partner {} staged without field mappings, the config service was unavailable",
+                        entityType, partnerId);
+            }
+
+            if (outcome.failedRecords() > 0) {
+                // Valid items are staged, but the entity poll is reported as failed for follow-up.
+                // Dropping the validators makes the next poll download the payload again instead of a 304.
+                conditionalRequestStore.forget(partnerId);
+                String errorMessage = outcome.failedRecords() + " records failed normalization: " + outcome.firstError();
+                recordJobExecution(partnerId, entityType, jobDate, "FAILED", outcome.stagedRecords(), errorMessage, startTime);
+                log.error("{} polling for partner {} staged {} records, {}",
+                        entityType, partnerId, outcome.stagedRecords(), errorMessage);
+                return false;
+            }
+
+            // Record successful execution; unchanged records and 304 responses are not counted
+            recordJobExecution(partnerId, entityType, jobDate, "SUCCESS", outcome.stagedRecords(), null, startTime);
 
             log.info("Successfully completed {} polling for {}", entityType, partnerId);
+            return true;
 
         } catch (Exception e) {
             // Record failed execution
             recordJobExecution(partnerId, entityType, jobDate, "FAILED", 0, e.getMessage(), startTime);
 
-            log.error("{} polling failed for partner {}: {}", entityType, partnerId, e.getMessage(), e);
+            if (NestedExceptionUtils.getMostSpecificCause(e) instanceof PartnerUnavailableException) {
+                log.warn("{} polling skipped for partner {}: {}", entityType, partnerId, e.getMessage());
+            } else {
+                log.error("{} polling failed for partner {}: {}", entityType, partnerId, e.getMessage(), e);
+            }
+            return false;
         }
     }
 
@@ -97,42 +204,7 @@ public class PartnerPollingService {
                 .durationMs(durationMs)
                 .build();
 
-        jobExecutionRepository.save(jobExecution);
-    }
-
-    private void saveToStaging(String partnerId, String entityType, String rawData) {
-        try {
-            // Normalize the data (this will throw exception if invalid)
-            String normalizedData = dataNormalizationService.normalizeData(rawData, partnerId, entityType);
-
-            String batchId = UUID.randomUUID().toString();
-            StagingRecord record = StagingRecord.builder()
-                    .partnerId(partnerId)
-                    .entityType(entityType)
-                    .rawData(rawData)
-                    .normalizedData(normalizedData)
-                    .status("PENDING")
-                    .batchId(batchId)
-                    .build();
-
-            stagingRecordRepository.save(record);
-            log.info("Saved {} record for partner {} with batch ID {}", entityType, partnerId, batchId);
-
-        } catch (Exception e) {
-            // Save failed record with error status
-            String batchId = UUID.randomUUID().toString();
-            StagingRecord record = StagingRecord.builder()
-                    .partnerId(partnerId)
-                    .entityType(entityType)
-                    .rawData(rawData)
-                    .normalizedData(null)
-                    .status("FAILED")
-                    .batchId(batchId)
-                    .build();
-
-            stagingRecordRepository.save(record);
-            log.error("Failed to normalize {} data for partner {}: {}", entityType, partnerId, e.getMessage());
-            throw e; // Re-throw to trigger job execution failure
-        }
+        // Saves the execution and updates the daily and partner summaries in one transaction
+        jobSummaryService.record(jobExecution);
     }
-}
\ No newline at end of file
+}
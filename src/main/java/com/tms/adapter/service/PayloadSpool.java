@@ -0,0 +1,126 @@
+package com.tms.adapter.service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Write-once buffer for a payload on its way to staging.
+ *
+ * Bytes are kept in memory up to a fixed threshold and overflow to a temp file beyond it, so a
+ * multi-hundred-MB partner feed never has to exist as a single array or String on the heap.
+ */
+public class PayloadSpool implements Closeable {
+
+    private final int memoryThreshold;
+    private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+    private Path file;
+    private OutputStream fileOut;
+    private long size;
+
+    public PayloadSpool(int memoryThreshold) {
+        this.memoryThreshold = memoryThreshold;
+    }
+
+    public OutputStream outputStream() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                target(1).write(b);
+                size++;
+            }
+
+            @Override
+            public void write(byte[] bytes, int off, int len) throws IOException {
+                target(len).write(bytes, off, len);
+                size += len;
+            }
+        };
+    }
+
+    /**
+     * Wraps {@code source} so that every byte read from it is also appended to this spool.
+     */
+    public InputStream tee(InputStream source) {
+        OutputStream sink = outputStream();
+        return new FilterInputStream(source) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    sink.write(b);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] bytes, int off, int len) throws IOException {
+                int read = super.read(bytes, off, len);
+                if (read > 0) {
+                    sink.write(bytes, off, read);
+                }
+                return read;
+            }
+        };
+    }
+
+    /**
+     * Reads whatever is left in {@code teed} so the spool holds the complete payload.
+     */
+    public void drain(InputStream teed) throws IOException {
+        byte[] buffer = new byte[8192];
+        while (teed.read(buffer) >= 0) {
+            // bytes are captured by the tee
+        }
+    }
+
+    public InputStream openInputStream() throws IOException {
+        if (file == null) {
+            return new ByteArrayInputStream(memory.toByteArray());
+        }
+        fileOut.flush();
+        return Files.newInputStream(file);
+    }
+
+    public Reader openReader() throws IOException {
+        return new InputStreamReader(openInputStream(), StandardCharsets.UTF_8);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isOnDisk() {
+        return file != null;
+    }
+
+    private OutputStream target(int incoming) throws IOException {
+        if (file == null && memory.size() + (long) incoming > memoryThreshold) {
+            file = Files.createTempFile("payload-spool-", ".json");
+            fileOut = new BufferedOutputStream(Files.newOutputStream(file));
+            memory.writeTo(fileOut);
+            memory = null;
+        }
+        return file == null ? memory : fileOut;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fileOut != null) {
+            fileOut.close();
+        }
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
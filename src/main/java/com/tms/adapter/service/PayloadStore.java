@@ -0,0 +1,379 @@
+package com.tms.adapter.service;
+
+import com.tms.adapter.config.PayloadStoreProperties;
+import com.tms.adapter.config.ShardingProperties;
+import com.tms.adapter.entity.PayloadBlob;
+import com.tms.adapter.repository.PayloadBlobRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Content-addressed, compressed storage for staging payloads.
+ *
+ * Payloads are keyed by the SHA-256 of their uncompressed bytes, so identical payloads are stored
+ * once. Small compressed payloads live inline in {@code payload_blobs}; larger ones are written to
+ * a local file store and read back through memory-mapped I/O. Item payloads below
+ * {@code payload-store.min-size} are not stored here at all, see {@link #stores}.
+ *
+ * The {@code payload_blobs} rows are shared by every instance on the datasource, the file store
+ * only when {@code payload-store.directory} is a shared volume. A FILE blob therefore counts as
+ * stored only once its file exists here; a row written by another instance does not stop this one
+ * from writing its own copy.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PayloadStore {
+
+    private static final String INLINE = "INLINE";
+    private static final String FILE = "FILE";
+
+    private final PayloadBlobRepository payloadBlobRepository;
+    private final PayloadStoreProperties properties;
+    private final ShardingProperties shardingProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void checkDirectory() {
+        Path tmp = Path.of(System.getProperty("java.io.tmpdir")).toAbsolutePath();
+        if (properties.isEnabled() && shardingProperties.isEnabled()
+                && properties.getDirectory().toAbsolutePath().startsWith(tmp)) {
+            log.warn("Payload store directory {} is local to this host while sharding is enabled; "
+                    + "set PAYLOAD_STORE_DIR to a shared volume so every instance can read the payloads of the others",
+                    properties.getDirectory());
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Whether an item payload is worth moving into the store. Below {@code payload-store.min-size}
+     * the hash, the compression and the extra row cost more than they save, so the payload stays
+     * in the staging row. Measured in characters, which never exceeds the UTF-8 size.
+     */
+    public boolean stores(String payload) {
+        return payload != null && payload.length() >= properties.getMinSize().toBytes();
+    }
+
+    /**
+     * Stores a batch of payloads with one existence lookup and one insert transaction.
+     *
+     * @return the content key of each payload, in input order
+     */
+    public List<String> putAll(String entityType, List<String> payloads) {
+        PayloadCodec codec = properties.codecFor(entityType);
+        List<String> keys = new ArrayList<>(payloads.size());
+        Map<String, byte[]> distinct = new LinkedHashMap<>();
+
+        for (String payload : payloads) {
+            byte[] content = payload.getBytes(StandardCharsets.UTF_8);
+            String key = sha256(content);
+            keys.add(key);
+            distinct.putIfAbsent(key, content);
+        }
+
+        for (PayloadBlobRepository.StoredFormView stored : payloadBlobRepository.findStoredForms(distinct.keySet())) {
+            byte[] content = distinct.remove(stored.getContentHash());
+            if (FILE.equals(stored.getStorage())) {
+                PayloadCodec storedCodec = PayloadCodec.valueOf(stored.getCodec());
+                if (!Files.exists(pathFor(stored.getContentHash(), storedCodec))) {
+                    writeFile(stored.getContentHash(), storedCodec, compress(content, storedCodec));
+                }
+            }
+        }
+        if (!distinct.isEmpty()) {
+            List<PayloadBlob> blobs = new ArrayList<>(distinct.size());
+            distinct.forEach((key, content) -> blobs.add(encode(key, content, codec)));
+            saveBlobs(blobs);
+        }
+        return keys;
+    }
+
+    /**
+     * Stores a spooled payload without loading it onto the heap.
+     *
+     * @return the content key of the payload
+     */
+    public String put(String entityType, PayloadSpool spool) throws IOException {
+        PayloadCodec codec = properties.codecFor(entityType);
+        Files.createDirectories(properties.getDirectory());
+        Path temp = Files.createTempFile(properties.getDirectory(), "incoming-", ".tmp");
+
+        try {
+            MessageDigest digest = newDigest();
+            try (InputStream in = spool.openInputStream();
+                 OutputStream out = new DigestOutputStream(
+                         codec.compress(Files.newOutputStream(temp)), digest)) {
+                in.transferTo(out);
+            }
+            // Digest wraps the compressor, so it sees the uncompressed bytes
+            String key = HexFormat.of().formatHex(digest.digest());
+
+            List<PayloadBlobRepository.StoredFormView> stored = payloadBlobRepository.findStoredForms(List.of(key));
+            if (!stored.isEmpty()) {
+                if (FILE.equals(stored.get(0).getStorage())) {
+                    restoreFile(key, PayloadCodec.valueOf(stored.get(0).getCodec()), codec, temp, spool);
+                }
+                return key;
+            }
+
+            long storedSize = Files.size(temp);
+            PayloadBlob.PayloadBlobBuilder blob = PayloadBlob.builder()
+                    .contentHash(key)
+                    .codec(codec.name())
+                    .originalSize(spool.size())
+                    .storedSize(storedSize);
+
+            if (storedSize <= inlineThreshold()) {
+                blob.storage(INLINE).inlineData(Files.readAllBytes(temp));
+            } else {
+                moveIntoPlace(temp, pathFor(key, codec));
+                blob.storage(FILE);
+            }
+            saveBlobs(List.of(blob.build()));
+            return key;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Reader openReader(String key) throws IOException {
+        PayloadBlob blob = payloadBlobRepository.findById(key)
+                .orElseThrow(() -> new IllegalArgumentException("Payload not found: " + key));
+        return openReader(blob);
+    }
+
+    public String read(String key) {
+        try (Reader reader = openReader(key)) {
+            return readFully(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read payload " + key, e);
+        }
+    }
+
+    /**
+     * Reads the payloads behind {@code keys} with a single {@code payload_blobs} query.
+     *
+     * @return the payload text by content key; keys that are not stored are left out
+     */
+    public Map<String, String> readAll(Collection<String> keys) {
+        Map<String, String> payloads = new HashMap<>();
+        if (keys.isEmpty()) {
+            return payloads;
+        }
+        for (PayloadBlob blob : payloadBlobRepository.findAllById(keys)) {
+            try (Reader reader = openReader(blob)) {
+                payloads.put(blob.getContentHash(), readFully(reader));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read payload " + blob.getContentHash(), e);
+            }
+        }
+        return payloads;
+    }
+
+    /**
+     * Resolves a staging payload column that is either stored inline or referenced by key, taking
+     * referenced payloads from those loaded by {@link #readAll}.
+     */
+    public String resolve(String inlineValue, String key, Map<String, String> payloads) {
+        if (inlineValue != null || key == null) {
+            return inlineValue;
+        }
+        String payload = payloads.get(key);
+        if (payload == null) {
+            throw new IllegalArgumentException("Payload not found: " + key);
+        }
+        return payload;
+    }
+
+    private Reader openReader(PayloadBlob blob) throws IOException {
+        PayloadCodec codec = PayloadCodec.valueOf(blob.getCodec());
+
+        InputStream stored;
+        if (INLINE.equals(blob.getStorage())) {
+            stored = new ByteArrayInputStream(blob.getInlineData());
+        } else {
+            Path path = pathFor(blob.getContentHash(), codec);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                // The mapping stays valid after the channel is closed
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                stored = new ByteBufferInputStream(mapped);
+            }
+        }
+        return new InputStreamReader(codec.decompress(stored), StandardCharsets.UTF_8);
+    }
+
+    private static String readFully(Reader reader) throws IOException {
+        StringWriter content = new StringWriter();
+        reader.transferTo(content);
+        return content.toString();
+    }
+
+    private PayloadBlob encode(String key, byte[] content, PayloadCodec codec) {
+        byte[] compressed = compress(content, codec);
+        PayloadBlob.PayloadBlobBuilder blob = PayloadBlob.builder()
+                .contentHash(key)
+                .codec(codec.name())
+                .originalSize((long) content.length)
+                .storedSize((long) compressed.length);
+
+        if (compressed.length <= inlineThreshold()) {
+            return blob.storage(INLINE).inlineData(compressed).build();
+        }
+        writeFile(key, codec, compressed);
+        return blob.storage(FILE).build();
+    }
+
+    private static byte[] compress(byte[] content, PayloadCodec codec) {
+        try {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, content.length / 2));
+            try (OutputStream out = codec.compress(compressed)) {
+                out.write(content);
+            }
+            return compressed.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress payload", e);
+        }
+    }
+
+    private void writeFile(String key, PayloadCodec codec, byte[] compressed) {
+        try {
+            Path target = pathFor(key, codec);
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), "incoming-", ".tmp");
+            try {
+                Files.write(temp, compressed);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store payload " + key, e);
+        }
+    }
+
+    /**
+     * Writes the local file of a FILE blob another instance stored, unless this host already has
+     * it. The file must use the codec recorded in the row, which need not be the one used here.
+     */
+    private void restoreFile(String key, PayloadCodec storedCodec, PayloadCodec codec, Path temp, PayloadSpool spool)
+            throws IOException {
+        Path target = pathFor(key, storedCodec);
+        if (Files.exists(target)) {
+            return;
+        }
+        if (storedCodec != codec) {
+            try (InputStream in = spool.openInputStream();
+                 OutputStream out = storedCodec.compress(Files.newOutputStream(temp))) {
+                in.transferTo(out);
+            }
+        }
+        moveIntoPlace(temp, target);
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void saveBlobs(List<PayloadBlob> blobs) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> payloadBlobRepository.saveAll(blobs));
+        } catch (DataIntegrityViolationException e) {
+            // Another writer stored some of the same content concurrently; keep whatever is still missing
+            log.debug("Concurrent payload insert detected, retrying {} blobs individually", blobs.size());
+            for (PayloadBlob blob : blobs) {
+                try {
+                    blob.setNewBlob(true);
+                    transactionTemplate.executeWithoutResult(status -> payloadBlobRepository.save(blob));
+                } catch (DataIntegrityViolationException duplicate) {
+                    // Already stored by the other writer
+                }
+            }
+        }
+    }
+
+    private long inlineThreshold() {
+        return Math.min(properties.getInlineThreshold().toBytes(), PayloadBlob.MAX_INLINE_BYTES);
+    }
+
+    private Path pathFor(String key, PayloadCodec codec) {
+        return properties.getDirectory()
+                .resolve(key.substring(0, 2))
+                .resolve(key + "." + codec.name().toLowerCase());
+    }
+
+    private static String sha256(byte[] content) {
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.tms.adapter.service;
+
+import com.tms.adapter.config.PollingProperties;
+import com.tms.adapter.dto.PollingRunSummary;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs partner/entity polls concurrently on a bounded executor.
+ *
+ * Each partner is split into at most {@code perPartnerConcurrency} lanes, and each lane polls its
+ * entity types one after another. A global semaphore caps the number of polls in flight, so the
+ * run takes roughly as long as the slowest partner rather than the sum of all of them.
+ *
+ * {@code onPartnerComplete} is called once per partner after all of its lanes have ended. A lane
+ * cancelled at the run deadline may still be polling after {@link #run} returns, so callers that
+ * guard partners against concurrent polls release them there rather than when the run returns.
+ */
+@Component
+@Slf4j
+public class PollingEngine {
+
+    @FunctionalInterface
+    public interface EntityPollTask {
+        /**
+         * @return true when the entity poll succeeded
+         */
+        boolean poll(String partnerId, String entityType);
+    }
+
+    private final PollingProperties properties;
+    private final ExecutorService executor;
+    private final Semaphore globalPermits;
+
+    public PollingEngine(PollingProperties properties) {
+        this.properties = properties;
+        this.executor = createExecutor(properties);
+        this.globalPermits = new Semaphore(Math.max(1, properties.getMaxConcurrency()));
+    }
+
+    public PollingRunSummary run(List<String> partnerIds, List<String> entityTypes,
+                                 EntityPollTask task, Consumer<String> onPartnerComplete) {
+        String runId = UUID.randomUUID().toString();
+        Instant startedAt = Instant.now();
+        Instant deadline = startedAt.plus(properties.getRunDeadline());
+        RunTracker tracker = new RunTracker();
+
+        int lanesPerPartner = Math.max(1, Math.min(properties.getPerPartnerConcurrency(), entityTypes.size()));
+        log.info("Polling run {} started: {} partners, {} entity types, {} lanes per partner",
+                runId, partnerIds.size(), entityTypes.size(), lanesPerPartner);
+
+        List<Lane> lanes = new ArrayList<>();
+        for (String partnerId : partnerIds) {
+            PartnerTiming timing = tracker.partner(partnerId, lanesPerPartner);
+            for (int index = 0; index < lanesPerPartner; index++) {
+                List<String> laneTypes = new ArrayList<>();
+                for (int i = index; i < entityTypes.size(); i += lanesPerPartner) {
+                    laneTypes.add(entityTypes.get(i));
+                }
+                Lane lane = new Lane(partnerId, timing, onPartnerComplete);
+                try {
+                    lane.future = executor.submit(() -> {
+                        if (lane.start()) {
+                            runLane(lane, laneTypes, task, deadline, tracker);
+                        }
+                    });
+                    lanes.add(lane);
+                } catch (RejectedExecutionException e) {
+                    log.warn("Polling lane for partner {} rejected, the engine is shutting down", partnerId);
+                    lane.endUnstarted();
+                }
+            }
+        }
+
+        boolean deadlineExceeded = awaitLanes(lanes, deadline);
+
+        Instant finishedAt = Instant.now();
+        int scheduled = partnerIds.size() * entityTypes.size();
+        int succeeded = tracker.succeeded.get();
+        int failed = tracker.failed.get();
+
+        Map.Entry<String, PartnerTiming> slowest = tracker.slowest();
+
+        PollingRunSummary summary = PollingRunSummary.builder()
+                .runId(runId)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .durationMs(Duration.between(startedAt, finishedAt).toMillis())
+                .totalPartners(partnerIds.size())
+                .scheduledPolls(scheduled)
+                .successfulPolls(succeeded)
+                .failedPolls(failed)
+                .skippedPolls(Math.max(0, scheduled - succeeded - failed))
+                .deadlineExceeded(deadlineExceeded)
+                .slowestPartnerId(slowest != null ? slowest.getKey() : null)
+                .slowestPartnerMs(slowest != null ? slowest.getValue().elapsedMs() : 0)
+                .build();
+
+        log.info("Polling run {} finished in {} ms: {} success, {} failed, {} skipped, slowest partner {} ({} ms)",
+                runId, summary.getDurationMs(), succeeded, failed, summary.getSkippedPolls(),
+                summary.getSlowestPartnerId(), summary.getSlowestPartnerMs());
+        return summary;
+    }
+
+    private void runLane(Lane lane, List<String> entityTypes, EntityPollTask task, Instant deadline,
+                         RunTracker tracker) {
+        String partnerId = lane.partnerId;
+        PartnerTiming timing = lane.timing;
+        try {
+            for (String entityType : entityTypes) {
+                if (Thread.currentThread().isInterrupted() || Instant.now().isAfter(deadline)) {
+                    log.warn("Skipping {} polling for partner {}: run deadline exceeded", entityType, partnerId);
+                    continue;
+                }
+
+                try {
+                    globalPermits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    continue;
+                }
+
+                timing.started();
+                try {
+                    if (task.poll(partnerId, entityType)) {
+                        tracker.succeeded.incrementAndGet();
+                    } else {
+                        tracker.failed.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    tracker.failed.incrementAndGet();
+                    log.error("{} polling crashed for partner {}: {}", entityType, partnerId, e.getMessage(), e);
+                } finally {
+                    globalPermits.release();
+                    timing.finished();
+                }
+            }
+        } finally {
+            lane.ended();
+        }
+    }
+
+    private boolean awaitLanes(List<Lane> lanes, Instant deadline) {
+        boolean deadlineExceeded = false;
+        for (Lane lane : lanes) {
+            if (deadlineExceeded) {
+                lane.cancel();
+                continue;
+            }
+            try {
+                long remainingMs = Math.max(0, Duration.between(Instant.now(), deadline).toMillis());
+                lane.future.get(remainingMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Polling run deadline exceeded, cancelling outstanding polls");
+                deadlineExceeded = true;
+                lane.cancel();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                deadlineExceeded = true;
+                lane.cancel();
+            } catch (ExecutionException | CancellationException e) {
+                log.error("Polling lane terminated unexpectedly: {}", e.getMessage());
+            }
+        }
+        return deadlineExceeded;
+    }
+
+    private static ExecutorService createExecutor(PollingProperties properties) {
+        if (properties.isVirtualThreads()) {
+            try {
+                ExecutorService virtual = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+                log.info("Partner polling runs on virtual threads");
+                return virtual;
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads are not available on Java {}, falling back to a platform thread pool",
+                        Runtime.version().feature());
+            }
+        }
+        return Executors.newFixedThreadPool(Math.max(1, properties.getMaxConcurrency()),
+                new CustomizableThreadFactory("partner-poll-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * One lane of a partner. Exactly one of the lane itself or the code that cancels or rejects it
+     * before it starts ends the lane, so a partner completes once, and only after its last running
+     * lane has returned.
+     */
+    private static final class Lane {
+        private final String partnerId;
+        private final PartnerTiming timing;
+        private final Consumer<String> onPartnerComplete;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private Future<?> future;
+
+        Lane(String partnerId, PartnerTiming timing, Consumer<String> onPartnerComplete) {
+            this.partnerId = partnerId;
+            this.timing = timing;
+            this.onPartnerComplete = onPartnerComplete;
+        }
+
+        boolean start() {
+            return started.compareAndSet(false, true);
+        }
+
+        /**
+         * Interrupts a running lane, which ends itself once its current poll returns; a lane that
+         * has not started yet is ended here.
+         */
+        void cancel() {
+            future.cancel(true);
+            endUnstarted();
+        }
+
+        void endUnstarted() {
+            if (start()) {
+                ended();
+            }
+        }
+
+        void ended() {
+            if (timing.laneDone()) {
+                try {
+                    onPartnerComplete.accept(partnerId);
+                } catch (RuntimeException e) {
+                    log.error("Completing partner {} failed: {}", partnerId, e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private static class RunTracker {
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Map<String, PartnerTiming> partners = new ConcurrentHashMap<>();
+
+        PartnerTiming partner(String partnerId, int lanes) {
+            return partners.computeIfAbsent(partnerId, id -> new PartnerTiming(lanes));
+        }
+
+        Map.Entry<String, PartnerTiming> slowest() {
+            return partners.entrySet().stream()
+                    .max(Map.Entry.comparingByValue((a, b) -> Long.compare(a.elapsedMs(), b.elapsedMs())))
+                    .orElse(null);
+        }
+    }
+
+    private static class PartnerTiming {
+        private final AtomicLong firstStartNanos = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong lastEndNanos = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger remainingLanes;
+
+        PartnerTiming(int lanes) {
+            this.remainingLanes = new AtomicInteger(lanes);
+        }
+
+        void started() {
+            firstStartNanos.accumulateAndGet(System.nanoTime(), Math::min);
+        }
+
+        void finished() {
+            lastEndNanos.accumulateAndGet(System.nanoTime(), Math::max);
+        }
+
+        boolean laneDone() {
+            return remainingLanes.decrementAndGet() == 0;
+        }
+
+        long elapsedMs() {
+            long start = firstStartNanos.get();
+            long end = lastEndNanos.get();
+            return end < start ? 0 : TimeUnit.NANOSECONDS.toMillis(end - start);
+        }
+    }
+}
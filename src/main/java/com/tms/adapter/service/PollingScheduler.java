@@ -0,0 +1,185 @@
+package com.tms.adapter.service;
+
+import com.tms.adapter.client.PartnerConfigCache;
+import com.tms.adapter.config.PollingProperties;
+import com.tms.adapter.dto.PartnerConfig;
+import com.tms.adapter.dto.PollingRunSummary;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Dispatches each partner's entity polls on their own intervals ({@code polling.schedule}).
+ *
+ * A partner is first polled within a jitter of being picked up, after a deploy or a lease
+ * takeover alike. From then on every (partner, entity type) gets a fixed phase within its
+ * interval, derived from a hash of the two, so dispatches are spread evenly over the interval and
+ * every instance uses the same slots; a small random jitter is added on top. A partner is never
+ * polled twice at once: entity types that come due while it is busy stay due and go out together
+ * in its next dispatch, and slots missed meanwhile are not made up.
+ */
+@Component
+@ConditionalOnProperty(name = "polling.schedule.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class PollingScheduler {
+
+    private final PartnerPollingService partnerPollingService;
+    private final PartnerConfigCache partnerConfigCache;
+    private final PartnerLeaseManager partnerLeaseManager;
+    private final PollingProperties properties;
+    private final ExecutorService dispatchExecutor;
+
+    private final Map<String, PartnerSchedule> schedules = new ConcurrentHashMap<>();
+
+    public PollingScheduler(PartnerPollingService partnerPollingService, PartnerConfigCache partnerConfigCache,
+                            PartnerLeaseManager partnerLeaseManager, PollingProperties properties) {
+        this.partnerPollingService = partnerPollingService;
+        this.partnerConfigCache = partnerConfigCache;
+        this.partnerLeaseManager = partnerLeaseManager;
+        this.properties = properties;
+        // Each dispatch waits for its partner's polls; PollingEngine caps the fetches themselves
+        this.dispatchExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getMaxConcurrency()),
+                new CustomizableThreadFactory("poll-dispatch-"));
+    }
+
+    @Scheduled(fixedDelayString = "${polling.schedule.tick-ms:10000}")
+    public void dispatchDuePolls() {
+        List<PartnerConfig> partners;
+        try {
+            partners = partnerConfigCache.getActivePartners();
+        } catch (Exception e) {
+            log.warn("Cannot dispatch polls, partner configs unavailable: {}", e.getMessage());
+            return;
+        }
+
+        Instant now = Instant.now();
+        Set<String> active = new HashSet<>();
+        for (PartnerConfig partner : partners) {
+            String partnerId = partner.getPartnerId();
+            if (!partnerLeaseManager.holds(partnerId)) {
+                // Polled by the instance holding its lease; the slots are the same on every instance
+                continue;
+            }
+            active.add(partnerId);
+            PartnerSchedule schedule = schedules.computeIfAbsent(partnerId, id -> new PartnerSchedule(id, now));
+            List<String> due = schedule.claimDue(now);
+            if (!due.isEmpty()) {
+                dispatchExecutor.execute(() -> dispatch(schedule, due));
+            }
+        }
+        // Partners that were deactivated or moved to another instance; a dispatch still running finishes normally
+        schedules.keySet().retainAll(active);
+    }
+
+    private void dispatch(PartnerSchedule schedule, List<String> entityTypes) {
+        boolean polled = false;
+        try {
+            Optional<PollingRunSummary> summary = partnerPollingService.pollPartner(schedule.partnerId, entityTypes);
+            polled = summary.isPresent();
+            if (!polled) {
+                log.debug("Deferring {} polling for partner {}: already being polled or lease lost",
+                        entityTypes, schedule.partnerId);
+            }
+        } catch (Exception e) {
+            polled = true;
+            log.error("Scheduled polling of partner {} failed: {}", schedule.partnerId, e.getMessage(), e);
+        } finally {
+            schedule.finished(entityTypes, polled, Instant.now());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatchExecutor.shutdownNow();
+    }
+
+    private final class PartnerSchedule {
+        private final String partnerId;
+        // Entity type -> next dispatch time, in PartnerPollingService.ENTITY_TYPES order
+        private final Map<String, Instant> nextDue = new LinkedHashMap<>();
+        private boolean running;
+
+        PartnerSchedule(String partnerId, Instant now) {
+            this.partnerId = partnerId;
+            // Waiting for the first slot could leave a new partner unpolled for a whole interval
+            for (String entityType : PartnerPollingService.ENTITY_TYPES) {
+                nextDue.put(entityType, now.plus(jitter(interval(entityType))));
+            }
+            log.info("Scheduled partner {}: first polls at {}", partnerId, nextDue);
+        }
+
+        /**
+         * The entity types due at {@code now}, marking the partner as running; empty while a
+         * previous dispatch is still running.
+         */
+        synchronized List<String> claimDue(Instant now) {
+            if (running) {
+                return List.of();
+            }
+            List<String> due = new ArrayList<>();
+            nextDue.forEach((entityType, at) -> {
+                if (!at.isAfter(now)) {
+                    due.add(entityType);
+                }
+            });
+            running = !due.isEmpty();
+            return due;
+        }
+
+        synchronized void finished(List<String> entityTypes, boolean polled, Instant now) {
+            running = false;
+            if (polled) {
+                entityTypes.forEach(entityType -> nextDue.put(entityType, nextDispatch(entityType, now)));
+            }
+        }
+
+        /**
+         * The first slot of this entity type's grid after {@code now}, plus jitter. The grid is
+         * anchored at the epoch, so the phase does not depend on when the node started.
+         */
+        private Instant nextDispatch(String entityType, Instant now) {
+            long interval = interval(entityType);
+            long phase = Math.floorMod(phaseHash(entityType), interval);
+            long slot = Math.floorDiv(now.toEpochMilli() - phase, interval) * interval + phase + interval;
+            return Instant.ofEpochMilli(slot).plus(jitter(interval));
+        }
+
+        private long interval(String entityType) {
+            return Math.max(1, properties.getSchedule().intervalFor(partnerId, entityType).toMillis());
+        }
+
+        private Duration jitter(long interval) {
+            long maxJitter = Math.min((long) (interval * properties.getSchedule().getJitter()),
+                    properties.getSchedule().getMaxJitter().toMillis());
+            return Duration.ofMillis(maxJitter > 0 ? ThreadLocalRandom.current().nextLong(maxJitter) : 0);
+        }
+
+        /**
+         * 64 bits of an MD5 digest: stable across JVMs like {@code String.hashCode}, but ids that
+         * differ in one character land far apart instead of a fixed multiple of 31 apart.
+         */
+        private long phaseHash(String entityType) {
+            byte[] key = (partnerId + "/" + entityType).getBytes(StandardCharsets.UTF_8);
+            return UUID.nameUUIDFromBytes(key).getMostSignificantBits();
+        }
+    }
+}
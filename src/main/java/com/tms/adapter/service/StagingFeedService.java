@@ -0,0 +1,131 @@
+package com.tms.adapter.service;
+
+import com.tms.adapter.config.StagingProperties;
+import com.tms.adapter.dto.StagingRecordPage;
+import com.tms.adapter.dto.StagingRecordView;
+import com.tms.adapter.entity.StagingRecord;
+import com.tms.adapter.repository.StagingRecordRepository;
+import com.tms.adapter.repository.StagingRecordRepositoryCustom.FeedQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Hands staged records to the downstream TMS loader.
+ *
+ * Records are read in id order after a given id (keyset pagination), so every page and stream
+ * starts with an index seek no matter how far the loader has got. Once loaded, the loader
+ * acknowledges the id range it read together with the number of records it received, which moves
+ * those records to DISPATCHED.
+ *
+ * Ids come from a pooled sequence, so writer transactions, document inserts and other instances
+ * commit them out of order: a record can become visible below an id the loader has already
+ * passed. An acknowledgement whose range gained such a record is refused, and records that
+ * appear below the loader's position stay PENDING, so a loader that starts each round from
+ * {@code afterId=0} picks them up; acknowledged records no longer match, so that seek stays cheap.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StagingFeedService {
+
+    private final StagingRecordRepository stagingRecordRepository;
+    private final StagingProperties stagingProperties;
+    private final PayloadStore payloadStore;
+
+    public StagingRecordPage page(FeedQuery query, long afterId, Integer pageSize) {
+        StagingProperties.Feed feed = stagingProperties.getFeed();
+        int requested = pageSize != null ? pageSize : feed.getDefaultPageSize();
+        int size = Math.max(1, Math.min(requested, feed.getMaxPageSize()));
+
+        // One row past the page tells whether there is more
+        List<StagingRecord> records = stagingRecordRepository.findFeedPage(query, afterId, size + 1);
+        boolean hasMore = records.size() > size;
+        List<StagingRecordView> views = toViews(records.subList(0, Math.min(size, records.size())));
+
+        return StagingRecordPage.builder()
+                .records(views)
+                .nextAfterId(views.isEmpty() ? afterId : views.get(views.size() - 1).getId())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Streams the matching records after {@code afterId}; {@code limit} 0 streams to the end.
+     * Records are handed on one fetch at a time, once the payloads they reference are loaded, so
+     * memory use does not depend on the number of records.
+     */
+    public void stream(FeedQuery query, long afterId, long limit, Consumer<StagingRecordView> consumer) {
+        int fetchSize = Math.max(1, stagingProperties.getFeed().getFetchSize());
+        List<StagingRecord> fetched = new ArrayList<>(fetchSize);
+        stagingRecordRepository.streamFeed(query, afterId, limit, fetchSize, record -> {
+            fetched.add(record);
+            if (fetched.size() >= fetchSize) {
+                toViews(fetched).forEach(consumer);
+                fetched.clear();
+            }
+        });
+        toViews(fetched).forEach(consumer);
+    }
+
+    /**
+     * @return the number of records moved to DISPATCHED, 0 when the range now holds records the
+     *         loader did not receive
+     */
+    public int acknowledge(FeedQuery query, long afterId, long upToId, int received) {
+        String partner = query.partnerId() != null ? query.partnerId() : "any";
+        String entityType = query.entityType() != null ? query.entityType() : "any";
+        try {
+            int acknowledged = stagingRecordRepository.acknowledge(query, afterId, upToId, received);
+            log.info("Acknowledged {} {} staging records in ids ({}, {}] (partner {}, entity type {})",
+                    acknowledged, query.status(), afterId, upToId, partner, entityType);
+            return acknowledged;
+        } catch (JdbcUpdateAffectedIncorrectNumberOfRowsException e) {
+            log.warn("Refused acknowledgement of {} {} staging records in ids ({}, {}]: {} match now "
+                            + "(partner {}, entity type {})",
+                    received, query.status(), afterId, upToId, e.getActualRowsAffected(), partner, entityType);
+            return 0;
+        }
+    }
+
+    /**
+     * Loads the payloads the records reference with one lookup rather than one per column and row.
+     */
+    private List<StagingRecordView> toViews(List<StagingRecord> records) {
+        Set<String> refs = new HashSet<>();
+        for (StagingRecord record : records) {
+            if (record.getNormalizedData() == null && record.getNormalizedRef() != null) {
+                refs.add(record.getNormalizedRef());
+            }
+            if (record.getRawData() == null && record.getRawRef() != null) {
+                refs.add(record.getRawRef());
+            }
+        }
+        Map<String, String> payloads = payloadStore.readAll(refs);
+        return records.stream().map(record -> toView(record, payloads)).toList();
+    }
+
+    private StagingRecordView toView(StagingRecord record, Map<String, String> payloads) {
+        return StagingRecordView.builder()
+                .id(record.getId())
+                .partnerId(record.getPartnerId())
+                .entityType(record.getEntityType())
+                .externalId(record.getExternalId())
+                .status(record.getStatus())
+                .changeType(record.getChangeType())
+                .batchId(record.getBatchId())
+                .contentHash(record.getContentHash())
+                .receivedAt(record.getReceivedAt())
+                .normalizedData(payloadStore.resolve(record.getNormalizedData(), record.getNormalizedRef(), payloads))
+                .rawData(payloadStore.resolve(record.getRawData(), record.getRawRef(), payloads))
+                .build();
+    }
+}
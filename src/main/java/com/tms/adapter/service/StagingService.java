@@ -0,0 +1,371 @@
+package com.tms.adapter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.adapter.config.PipelineMetrics;
+import com.tms.adapter.config.StagingProperties;
+import com.tms.adapter.entity.StagingRecord;
+import com.tms.adapter.repository.StagingRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Normalizes partner payloads and writes them to {@code staging_records}.
+ *
+ * Top-level arrays are split into one row per item, handed in batches of {@code staging.batch-size}
+ * to the {@link StagingWriter}, which inserts them off the fetch thread. Any other document is
+ * staged as a single row whose payload columns are streamed from spools. With the
+ * {@link PayloadStore} enabled, rows hold references to compressed, deduplicated payloads instead
+ * of the payload text.
+ *
+ * Item rows carry an XXH64 hash of their normalized JSON. When {@code staging.delta-enabled} is set,
+ * an item whose hash matches the last staged version of the same externalId is classified UNCHANGED
+ * and not written, so write volume follows partner churn rather than catalogue size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StagingService {
+
+    private static final int ROOT_PEEK_LIMIT = 8192;
+
+    /**
+     * @param mappingsUnavailable the field mappings could not be fetched, so records were staged
+     *                            with basic validation only
+     */
+    public record StagingOutcome(int stagedRecords, int unchangedRecords, int failedRecords, String firstError,
+                                 boolean mappingsUnavailable) {
+
+        public static final StagingOutcome NONE = new StagingOutcome(0, 0, 0, null, false);
+
+        /**
+         * Combines the outcomes of a paged fetch, keeping the first error seen.
+         */
+        public StagingOutcome plus(StagingOutcome other) {
+            return new StagingOutcome(stagedRecords + other.stagedRecords,
+                    unchangedRecords + other.unchangedRecords,
+                    failedRecords + other.failedRecords,
+                    firstError != null ? firstError : other.firstError,
+                    mappingsUnavailable || other.mappingsUnavailable);
+        }
+    }
+
+    private final DataNormalizationService dataNormalizationService;
+    private final StagingRecordRepository stagingRecordRepository;
+    private final StagingProperties stagingProperties;
+    private final ObjectMapper objectMapper;
+    private final PayloadStore payloadStore;
+    private final PipelineMetrics pipelineMetrics;
+    private final StagingWriter stagingWriter;
+
+    public StagingOutcome stage(String partnerId, String entityType, InputStream body) throws IOException {
+        CountingInputStream counted = new CountingInputStream(body);
+        BufferedInputStream in = new BufferedInputStream(counted);
+        String batchId = UUID.randomUUID().toString();
+
+        StagingOutcome outcome = null;
+        try {
+            if (startsWithArray(in)) {
+                outcome = stageItems(partnerId, entityType, batchId, in);
+            } else {
+                boolean mapped = stageDocument(partnerId, entityType, batchId, in);
+                outcome = new StagingOutcome(1, 0, 0, null, !mapped);
+            }
+            return outcome;
+        } finally {
+            long items = outcome == null ? 0
+                    : outcome.stagedRecords() + outcome.unchangedRecords() + outcome.failedRecords();
+            pipelineMetrics.recordPayload(partnerId, entityType, counted.count, items);
+        }
+    }
+
+    private StagingOutcome stageItems(String partnerId, String entityType, String batchId, InputStream in) {
+        String externalIdField = stagingProperties.externalIdFieldFor(entityType);
+        ItemBatcher batcher = new ItemBatcher(partnerId, entityType, batchId, externalIdField);
+
+        long start = System.nanoTime();
+        boolean mapped;
+        try {
+            mapped = dataNormalizationService.normalizeItems(in, partnerId, entityType, batcher);
+            batcher.flush();
+            // Time spent waiting for room in the writer queue is not normalization
+            long normalizing = System.nanoTime() - start - batcher.blockedNanos;
+            pipelineMetrics.recordNormalization(partnerId, entityType, normalizing);
+        } finally {
+            // Batches already queued are committed before the caller records the job execution
+            batcher.awaitWrites();
+        }
+        if (batcher.writeFailure != null) {
+            throw batcher.writeFailure;
+        }
+
+        StagingWriter.WriteResult written = batcher.written;
+        log.info("Saved {} {} records for partner {} with batch ID {} ({} new, {} changed, {} unchanged, {} failed)",
+                written.staged(), entityType, partnerId, batchId,
+                written.created(), written.changed(), written.unchanged(), written.failed());
+        return new StagingOutcome(written.staged(), written.unchanged(), written.failed(), batcher.firstError, !mapped);
+    }
+
+    /**
+     * @return false when the document was staged without its field mappings
+     */
+    private boolean stageDocument(String partnerId, String entityType, String batchId, InputStream body)
+            throws IOException {
+        int memoryThreshold = (int) stagingProperties.getSpoolMemoryThreshold().toBytes();
+
+        try (PayloadSpool rawSpool = new PayloadSpool(memoryThreshold);
+             PayloadSpool normalizedSpool = new PayloadSpool(memoryThreshold)) {
+            // Every byte the normalizer pulls from the socket is also captured as raw data
+            InputStream rawData = rawSpool.tee(body);
+
+            try {
+                // Normalize the data (this will throw exception if invalid)
+                long start = System.nanoTime();
+                boolean mapped = dataNormalizationService.normalizeData(rawData, normalizedSpool.outputStream(),
+                        partnerId, entityType);
+                rawSpool.drain(rawData);
+                pipelineMetrics.recordNormalization(partnerId, entityType, System.nanoTime() - start);
+
+                StagingRecord record = StagingRecord.builder()
+                        .partnerId(partnerId)
+                        .entityType(entityType)
+                        .status("PENDING")
+                        .batchId(batchId)
+                        .build();
+
+                long insertStart = System.nanoTime();
+                if (payloadStore.isEnabled()) {
+                    record.setRawRef(payloadStore.put(entityType, rawSpool));
+                    record.setNormalizedRef(payloadStore.put(entityType, normalizedSpool));
+                    stagingRecordRepository.save(record);
+                } else {
+                    try (Reader raw = rawSpool.openReader(); Reader normalized = normalizedSpool.openReader()) {
+                        stagingRecordRepository.insertStreamed(record, raw, normalized);
+                    }
+                }
+                pipelineMetrics.recordStagingInsert(partnerId, entityType, System.nanoTime() - insertStart);
+                log.info("Saved {} record for partner {} with batch ID {} ({} raw bytes)",
+                        entityType, partnerId, batchId, rawSpool.size());
+                return mapped;
+
+            } catch (RuntimeException e) {
+                // Save failed record with error status, keeping whatever raw data could be read
+                try {
+                    rawSpool.drain(rawData);
+                } catch (IOException drainFailure) {
+                    log.warn("Could not read remaining {} data for partner {}: {}",
+                            entityType, partnerId, drainFailure.getMessage());
+                }
+
+                StagingRecord record = StagingRecord.builder()
+                        .partnerId(partnerId)
+                        .entityType(entityType)
+                        .status("FAILED")
+                        .batchId(batchId)
+                        .build();
+
+                if (payloadStore.isEnabled()) {
+                    record.setRawRef(payloadStore.put(entityType, rawSpool));
+                    stagingRecordRepository.save(record);
+                } else {
+                    try (Reader raw = rawSpool.openReader()) {
+                        stagingRecordRepository.insertStreamed(record, raw, null);
+                    }
+                }
+                log.error("Failed to normalize {} data for partner {}: {}", entityType, partnerId, e.getMessage());
+                throw e; // Re-throw to trigger job execution failure
+            }
+        }
+    }
+
+    /**
+     * Peeks past leading whitespace (and a UTF-8 BOM) without consuming anything.
+     */
+    private static boolean startsWithArray(BufferedInputStream in) throws IOException {
+        in.mark(ROOT_PEEK_LIMIT);
+        try {
+            for (int i = 0; i < ROOT_PEEK_LIMIT; i++) {
+                int b = in.read();
+                if (b == '[') {
+                    return true;
+                }
+                if (b != ' ' && b != '\t' && b != '\n' && b != '\r' && b != 0xEF && b != 0xBB && b != 0xBF) {
+                    return false;
+                }
+            }
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) throws IOException {
+            int read = super.read(bytes, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+
+    private class ItemBatcher implements DataNormalizationService.ItemSink<StagingRecord> {
+        private final String partnerId;
+        private final String entityType;
+        private final String batchId;
+        private final String externalIdField;
+        private final int batchSize = Math.max(1, stagingProperties.getBatchSize());
+        private final List<StagingRecord> pending = new ArrayList<>();
+        private final List<CompletableFuture<StagingWriter.WriteResult>> writes = new ArrayList<>();
+
+        private StagingWriter.WriteResult written = StagingWriter.WriteResult.NONE;
+        private RuntimeException writeFailure;
+        private String firstError;
+        private long blockedNanos;
+
+        ItemBatcher(String partnerId, String entityType, String batchId, String externalIdField) {
+            this.partnerId = partnerId;
+            this.entityType = entityType;
+            this.batchId = batchId;
+            this.externalIdField = externalIdField;
+        }
+
+        /**
+         * Serializes and hashes the item on the normalization pool; only queueing it is left to
+         * the polling thread.
+         */
+        @Override
+        public StagingRecord prepare(JsonNode rawItem, JsonNode normalizedItem) {
+            byte[] normalizedJson = writeBytes(normalizedItem);
+            return StagingRecord.builder()
+                    .partnerId(partnerId)
+                    .entityType(entityType)
+                    .externalId(externalId(normalizedItem, rawItem))
+                    .rawData(write(rawItem))
+                    .normalizedData(new String(normalizedJson, StandardCharsets.UTF_8))
+                    .contentHash(ContentHash.xxHash64(normalizedJson))
+                    .status("PENDING")
+                    .batchId(batchId)
+                    .build();
+        }
+
+        @Override
+        public void normalized(StagingRecord record) {
+            add(record);
+        }
+
+        @Override
+        public void failed(JsonNode rawItem, String errorMessage) {
+            add(StagingRecord.builder()
+                    .partnerId(partnerId)
+                    .entityType(entityType)
+                    .externalId(externalId(rawItem, rawItem))
+                    .rawData(write(rawItem))
+                    .status("FAILED")
+                    .batchId(batchId)
+                    .build());
+            if (firstError == null) {
+                firstError = errorMessage;
+            }
+        }
+
+        private void add(StagingRecord record) {
+            pending.add(record);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Hands the pending records to the staging writer, blocking while its queue is full.
+         */
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                writes.add(stagingWriter.submit(partnerId, entityType, new ArrayList<>(pending)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(
+                        "Interrupted while queueing " + entityType + " records of partner " + partnerId, e);
+            } finally {
+                blockedNanos += System.nanoTime() - start;
+            }
+            pending.clear();
+        }
+
+        /**
+         * Waits until every batch handed to the writer is committed or has failed. Does not throw,
+         * the first write failure is kept in {@link #writeFailure}.
+         */
+        void awaitWrites() {
+            for (CompletableFuture<StagingWriter.WriteResult> write : writes) {
+                try {
+                    written = written.plus(write.join());
+                } catch (CompletionException | CancellationException e) {
+                    if (writeFailure == null) {
+                        writeFailure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                    }
+                }
+            }
+            writes.clear();
+        }
+
+        private String externalId(JsonNode normalizedItem, JsonNode rawItem) {
+            JsonNode id = normalizedItem.get(externalIdField);
+            if (id == null || id.isNull()) {
+                id = rawItem.get(externalIdField);
+            }
+            return id == null || id.isNull() ? null : id.asText();
+        }
+
+        private byte[] writeBytes(JsonNode node) {
+            try {
+                return objectMapper.writeValueAsBytes(node);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private String write(JsonNode node) {
+            try {
+                return objectMapper.writeValueAsString(node);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.tms.adapter.service;
+
+import com.tms.adapter.config.PipelineMetrics;
+import com.tms.adapter.config.StagingProperties;
+import com.tms.adapter.entity.StagingRecord;
+import com.tms.adapter.repository.StagingRecordRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes staging item batches on a dedicated thread, so that fetch threads go on downloading and
+ * normalizing while earlier batches are written.
+ *
+ * Fetch threads hand over batches with {@link #submit}, which blocks once
+ * {@code staging.writer.queue-capacity} records are waiting. The writer gathers batches, from any
+ * partner, until {@code max-transaction-records} or {@code max-linger} is reached, classifies them
+ * against the last staged versions, and inserts them in one transaction. A batch's future
+ * completes once its rows are committed. If a shared transaction fails, its batches are retried
+ * one by one so that one bad batch does not fail the others. Every future completes: once the
+ * writer thread ends, for whatever reason, queued batches fail and {@link #submit} rejects new ones.
+ */
+@Component
+@Slf4j
+public class StagingWriter {
+
+    public record WriteResult(int staged, int created, int changed, int unchanged, int failed) {
+
+        public static final WriteResult NONE = new WriteResult(0, 0, 0, 0, 0);
+
+        public WriteResult plus(WriteResult other) {
+            return new WriteResult(staged + other.staged, created + other.created, changed + other.changed,
+                    unchanged + other.unchanged, failed + other.failed);
+        }
+    }
+
+    private final StagingRecordRepository stagingRecordRepository;
+    private final StagingProperties stagingProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final PayloadStore payloadStore;
+    private final PipelineMetrics pipelineMetrics;
+
+    private final BlockingQueue<Batch> queue = new LinkedBlockingQueue<>();
+    // Records that may still be queued; bounds memory and pushes back on fetch threads
+    private final Semaphore capacity;
+    private final int capacityRecords;
+    private final Object lifecycle = new Object();
+    private final Thread writerThread;
+    private boolean closed;
+
+    public StagingWriter(StagingRecordRepository stagingRecordRepository, StagingProperties stagingProperties,
+                         TransactionTemplate transactionTemplate, PayloadStore payloadStore,
+                         PipelineMetrics pipelineMetrics) {
+        this.stagingRecordRepository = stagingRecordRepository;
+        this.stagingProperties = stagingProperties;
+        this.transactionTemplate = transactionTemplate;
+        this.payloadStore = payloadStore;
+        this.pipelineMetrics = pipelineMetrics;
+        // Must fit at least one full batch, or a producer could wait forever
+        this.capacityRecords = Math.max(stagingProperties.getWriter().getQueueCapacity(),
+                Math.max(1, stagingProperties.getBatchSize()));
+        this.capacity = new Semaphore(capacityRecords);
+        this.writerThread = new CustomizableThreadFactory("staging-writer-").newThread(this::run);
+        pipelineMetrics.gaugeStagingQueue(() -> capacityRecords - capacity.availablePermits());
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread.start();
+    }
+
+    /**
+     * Queues a batch of item records of one partner and entity type. The list is handed over and
+     * must not be used by the caller afterwards.
+     *
+     * @return completes once the batch is committed, or exceptionally if it could not be written
+     * @throws IllegalStateException when the writer is shut down or its thread has stopped
+     */
+    public CompletableFuture<WriteResult> submit(String partnerId, String entityType, List<StagingRecord> records)
+            throws InterruptedException {
+        Batch batch = new Batch(partnerId, entityType, records);
+        int permits = Math.min(records.size(), capacityRecords);
+        capacity.acquire(permits);
+        synchronized (lifecycle) {
+            if (closed) {
+                capacity.release(permits);
+                throw new IllegalStateException("Staging writer is shut down or its thread has stopped");
+            }
+            queue.add(batch);
+        }
+        return batch.result;
+    }
+
+    private void run() {
+        try {
+            writeQueued();
+        } finally {
+            // However the thread ends, nothing queued now or later is written
+            synchronized (lifecycle) {
+                closed = true;
+            }
+            failQueued("Staging writer stopped before the batch was written");
+        }
+    }
+
+    private void writeQueued() {
+        StagingProperties.Writer config = stagingProperties.getWriter();
+        int maxRecords = Math.max(1, config.getMaxTransactionRecords());
+        while (true) {
+            boolean closing;
+            synchronized (lifecycle) {
+                closing = closed;
+                if (closing && queue.isEmpty()) {
+                    return;
+                }
+            }
+
+            List<Batch> group = new ArrayList<>();
+            try {
+                Batch first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(taken(first));
+                int records = first.records.size();
+                long lingerUntil = System.nanoTime() + config.getMaxLinger().toNanos();
+                while (records < maxRecords) {
+                    // No lingering while shutting down, only draining
+                    long remaining = closing ? 0 : lingerUntil - System.nanoTime();
+                    Batch next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(taken(next));
+                    records += next.records.size();
+                }
+            } catch (InterruptedException e) {
+                // Only interrupted when shutdown gave up waiting
+                group.forEach(batch -> batch.result.completeExceptionally(e));
+                return;
+            }
+
+            try {
+                write(group);
+            } catch (Throwable e) {
+                // Errors included: producers wait on these futures, so none may be left incomplete
+                log.error("Staging writer failed on {} batches: {}", group.size(), e.getMessage(), e);
+                group.forEach(batch -> batch.result.completeExceptionally(e));
+            }
+        }
+    }
+
+    private Batch taken(Batch batch) {
+        capacity.release(Math.min(batch.records.size(), capacityRecords));
+        return batch;
+    }
+
+    private void write(List<Batch> group) {
+        long start = System.nanoTime();
+        // Versions staged by earlier batches of this group are not in the table yet
+        Map<String, Long> groupHashes = new HashMap<>();
+        List<Batch> prepared = new ArrayList<>(group.size());
+        for (Batch batch : group) {
+            try {
+                prepare(batch, groupHashes);
+                prepared.add(batch);
+            } catch (RuntimeException e) {
+                log.error("Could not prepare {} staging batch for partner {}: {}",
+                        batch.entityType, batch.partnerId, e.getMessage());
+                batch.result.completeExceptionally(e);
+            }
+        }
+
+        List<StagingRecord> rows = new ArrayList<>();
+        prepared.forEach(batch -> rows.addAll(batch.rows));
+        try {
+            if (!rows.isEmpty()) {
+                // One transaction for the whole group; Hibernate sends the inserts as JDBC batches
+                transactionTemplate.executeWithoutResult(status -> stagingRecordRepository.saveAll(rows));
+            }
+            long elapsed = System.nanoTime() - start;
+            prepared.forEach(batch -> completed(batch, elapsed));
+            log.debug("Wrote {} staging rows from {} batches in {} ms",
+                    rows.size(), prepared.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } catch (RuntimeException e) {
+            if (prepared.size() == 1) {
+                prepared.get(0).result.completeExceptionally(e);
+                return;
+            }
+            log.warn("Staging transaction of {} batches failed ({}), writing them one by one",
+                    prepared.size(), e.getMessage());
+            for (Batch batch : prepared) {
+                long batchStart = System.nanoTime();
+                try {
+                    // Versions from the other batches of the group may never be written, so classify
+                    // against the table alone; earlier batches retried here are committed by now
+                    prepare(batch, new HashMap<>());
+                    // Ids from the rolled back transaction are not reused
+                    batch.rows.forEach(row -> row.setId(null));
+                    transactionTemplate.executeWithoutResult(status -> stagingRecordRepository.saveAll(batch.rows));
+                    completed(batch, System.nanoTime() - batchStart);
+                } catch (RuntimeException batchFailure) {
+                    batch.result.completeExceptionally(batchFailure);
+                }
+            }
+        }
+    }
+
+    private void completed(Batch batch, long elapsedNanos) {
+        pipelineMetrics.recordStagingInsert(batch.partnerId, batch.entityType, elapsedNanos);
+        batch.result.complete(batch.counts);
+    }
+
+    /**
+     * Classifies the batch, keeping only new, changed and failed records, and moves their payloads
+     * to the payload store. May run again for a batch whose group transaction failed.
+     */
+    private void prepare(Batch batch, Map<String, Long> groupHashes) {
+        int[] counts = new int[3]; // created, changed, unchanged
+        List<StagingRecord> rows = stagingProperties.isDeltaEnabled()
+                ? classify(batch, groupHashes, counts) : batch.records;
+
+        int failed = 0;
+        for (StagingRecord row : rows) {
+            if ("FAILED".equals(row.getStatus())) {
+                failed++;
+            }
+        }
+        if (payloadStore.isEnabled() && !rows.isEmpty()) {
+            moveToPayloadStore(batch.entityType, rows);
+        }
+        batch.rows = rows;
+        batch.counts = new WriteResult(rows.size() - failed, counts[0], counts[1], counts[2], failed);
+    }
+
+    private void moveToPayloadStore(String entityType, List<StagingRecord> rows) {
+        // Small payloads stay in the row; payloads moved by an earlier attempt are already null
+        List<String> payloads = new ArrayList<>();
+        for (StagingRecord record : rows) {
+            if (payloadStore.stores(record.getRawData())) {
+                payloads.add(record.getRawData());
+            }
+            if (payloadStore.stores(record.getNormalizedData())) {
+                payloads.add(record.getNormalizedData());
+            }
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        List<String> keys = payloadStore.putAll(entityType, payloads);
+        int next = 0;
+        for (StagingRecord record : rows) {
+            if (payloadStore.stores(record.getRawData())) {
+                record.setRawRef(keys.get(next++));
+                record.setRawData(null);
+            }
+            if (payloadStore.stores(record.getNormalizedData())) {
+                record.setNormalizedRef(keys.get(next++));
+                record.setNormalizedData(null);
+            }
+        }
+    }
+
+    /**
+     * Drops records whose content hash matches the latest staged hash for their externalId
+     * and tags the rest as NEW or CHANGED. Uses one indexed lookup per batch.
+     */
+    private List<StagingRecord> classify(Batch batch, Map<String, Long> groupHashes, int[] counts) {
+        Set<String> externalIds = new HashSet<>();
+        for (StagingRecord record : batch.records) {
+            if (record.getExternalId() != null && record.getContentHash() != null) {
+                externalIds.add(record.getExternalId());
+            }
+        }
+
+        Map<String, Long> latestHashes = new HashMap<>();
+        if (!externalIds.isEmpty()) {
+            for (StagingRecordRepository.ContentHashView view :
+                    stagingRecordRepository.findLatestContentHashes(batch.partnerId, batch.entityType, externalIds)) {
+                latestHashes.put(view.getExternalId(), view.getContentHash());
+            }
+        }
+
+        List<StagingRecord> changedRecords = new ArrayList<>(batch.records.size());
+        for (StagingRecord record : batch.records) {
+            if (record.getContentHash() == null) {
+                changedRecords.add(record); // failed items are always kept
+                continue;
+            }
+            String groupKey = record.getExternalId() != null ? batch.key(record.getExternalId()) : null;
+            Long previous = groupKey == null ? null
+                    : groupHashes.containsKey(groupKey) ? groupHashes.get(groupKey)
+                    : latestHashes.get(record.getExternalId());
+            if (previous == null) {
+                record.setChangeType("NEW");
+                counts[0]++;
+            } else if (previous.equals(record.getContentHash())) {
+                counts[2]++;
+                continue;
+            } else {
+                record.setChangeType("CHANGED");
+                counts[1]++;
+            }
+            if (groupKey != null) {
+                // Repeats of the same externalId later in the payload compare against this version
+                groupHashes.put(groupKey, record.getContentHash());
+            }
+            changedRecords.add(record);
+        }
+        return changedRecords;
+    }
+
+    /**
+     * Stops taking batches and writes everything already queued, waiting up to
+     * {@code staging.writer.shutdown-timeout}.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        synchronized (lifecycle) {
+            closed = true;
+        }
+        writerThread.join(stagingProperties.getWriter().getShutdownTimeout().toMillis());
+        if (writerThread.isAlive()) {
+            log.error("Staging writer did not finish within {}, {} batches are not written",
+                    stagingProperties.getWriter().getShutdownTimeout(), queue.size());
+            writerThread.interrupt();
+        } else {
+            log.info("Staging writer flushed and stopped");
+        }
+        failQueued("Staging writer shut down before the batch was written");
+    }
+
+    /**
+     * Fails every queued batch and returns its capacity, which wakes producers blocked in
+     * {@link #submit} so they see the writer closed.
+     */
+    private void failQueued(String reason) {
+        List<Batch> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(batch -> taken(batch).result.completeExceptionally(new IllegalStateException(reason)));
+    }
+
+    private static final class Batch {
+        private final String partnerId;
+        private final String entityType;
+        private final List<StagingRecord> records;
+        private final CompletableFuture<WriteResult> result = new CompletableFuture<>();
+        private List<StagingRecord> rows;
+        private WriteResult counts;
+
+        Batch(String partnerId, String entityType, List<StagingRecord> records) {
+            this.partnerId = partnerId;
+            this.entityType = entityType;
+            this.records = records;
+        }
+
+        String key(String externalId) {
+            return partnerId + '\u0000' + entityType + '\u0000' + externalId;
+        }
+    }
+}
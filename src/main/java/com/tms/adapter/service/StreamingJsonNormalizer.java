@@ -0,0 +1,145 @@
+package com.tms.adapter.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Token-level counterpart of the tree-based normalization in {@link DataNormalizationService}.
+ *
+ * Array payloads are processed one element at a time: unmapped fields are skipped without being
+ * materialized, and only the mapped values of the current element are held as nodes. The output is
+ * identical to the tree path, with one exception: when there are no mappings, duplicate keys are
+ * copied through as received instead of being collapsed to the last value.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StreamingJsonNormalizer {
+
+    private final ObjectMapper objectMapper;
+
+    public void normalize(JsonParser parser, JsonGenerator generator, FieldMappingPlan plan,
+                          String partnerId, String entityType) throws IOException {
+        // Step 1: Basic validation, mirroring the tree path (scalars count as empty there too)
+        JsonToken root = parser.nextToken();
+        if (root != JsonToken.START_OBJECT && root != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("Empty or null data received");
+        }
+
+        JsonToken first = parser.nextToken();
+        if (first == JsonToken.END_OBJECT || first == JsonToken.END_ARRAY) {
+            throw new IllegalArgumentException("Empty or null data received");
+        }
+
+        // Step 2: If no mappings available, copy validated raw data through
+        if (plan.isEmpty()) {
+            log.debug("No field mappings found for partner {} entity {}, returning raw data after validation", partnerId, entityType);
+            copyContainer(parser, generator, root, first);
+            return;
+        }
+
+        // Step 3: Apply field mappings
+        if (root == JsonToken.START_ARRAY) {
+            generator.writeStartArray();
+            for (JsonToken token = first; token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == JsonToken.START_OBJECT) {
+                    normalizeObject(parser, generator, parser.nextToken(), plan, partnerId, entityType);
+                } else {
+                    // Keep non-object items as-is
+                    generator.copyCurrentStructure(parser);
+                }
+            }
+            generator.writeEndArray();
+        } else {
+            normalizeObject(parser, generator, first, plan, partnerId, entityType);
+        }
+        generator.flush();
+    }
+
+    private void copyContainer(JsonParser parser, JsonGenerator generator, JsonToken root, JsonToken first)
+            throws IOException {
+        if (root == JsonToken.START_ARRAY) {
+            generator.writeStartArray();
+            for (JsonToken token = first; token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                generator.copyCurrentStructure(parser);
+            }
+            generator.writeEndArray();
+        } else {
+            generator.writeStartObject();
+            for (JsonToken token = first; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                generator.copyCurrentStructure(parser);
+            }
+            generator.writeEndObject();
+        }
+        generator.flush();
+    }
+
+    /**
+     * Normalizes the object whose first token after START_OBJECT is {@code first}, leaving the
+     * parser on its END_OBJECT.
+     */
+    private void normalizeObject(JsonParser parser, JsonGenerator generator, JsonToken first,
+                                 FieldMappingPlan plan, String partnerId, String entityType) throws IOException {
+        JsonNode[] values = new JsonNode[plan.size()];
+        boolean anyMapped = false;
+        // Only needed if nothing maps, so it stops growing at the first mapped field
+        ObjectNode unmapped = objectMapper.createObjectNode();
+
+        for (JsonToken token = first; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+
+            int[] slots = plan.slotsForSource(fieldName);
+            if (slots != null) {
+                // Nested sources are resolved within the top-level field they start at
+                JsonNode value = objectMapper.readTree(parser);
+                boolean found = false;
+                for (int slot : slots) {
+                    JsonNode slotValue = plan.readBelowRoot(slot, value);
+                    if (slotValue != null) {
+                        values[slot] = slotValue;
+                        found = true;
+                    }
+                }
+                if (found) {
+                    anyMapped = true;
+                    unmapped = null;
+                } else if (unmapped != null) {
+                    unmapped.set(fieldName, value);
+                }
+            } else if (unmapped != null) {
+                unmapped.set(fieldName, objectMapper.readTree(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        ObjectNode normalizedObject = objectMapper.createObjectNode();
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null) {
+                plan.write(slot, normalizedObject, values[slot], partnerId, entityType);
+            } else if (plan.isRequired(slot)) {
+                throw new IllegalArgumentException(
+                    String.format("Required field '%s' missing in %s data from partner %s",
+                                plan.sourceField(slot), entityType, partnerId));
+            }
+        }
+
+        if (!anyMapped) {
+            log.warn("No fields were mapped for partner {} entity {}, keeping original data", partnerId, entityType);
+            generator.writeTree(unmapped);
+            return;
+        }
+
+        generator.writeTree(normalizedObject);
+    }
+}
@@ -0,0 +1,246 @@
+package com.tms.adapter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DecimalNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.tms.adapter.dto.FieldMapping;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Built-in conversion of a mapped value, named by {@link FieldMapping#getTransform()}.
+ *
+ * Compiled once per mapping together with its date format or enum map. JSON null and blank
+ * strings convert to null, which fails a required mapping; a value that cannot be converted fails
+ * the item with IllegalArgumentException, like a missing required field.
+ */
+@FunctionalInterface
+public interface ValueCoercion {
+
+    ValueCoercion NONE = value -> value;
+
+    enum Type {
+        STRING,      // scalar as text
+        NUMBER,      // number, or numeric text such as "12.50"
+        INTEGER,     // whole number, or text of one
+        BOOLEAN,     // true/false, 1/0, yes/no
+        ISO_INSTANT, // ISO-8601 or formatted date-time, epoch seconds or millis -> "2024-05-01T18:30:00Z"
+        ISO_DATE,    // ISO-8601 or formatted date or date-time, epoch seconds or millis -> "2024-05-01"
+        ENUM         // partner value -> TMS value from enumValues, ignoring case
+    }
+
+    // Epoch numbers below this are seconds, above are milliseconds (1e11 s is in the year 5138)
+    long EPOCH_SECONDS_LIMIT = 100_000_000_000L;
+
+    JsonNode apply(JsonNode value);
+
+    /**
+     * @throws IllegalArgumentException for an unknown transform, a bad format pattern or an ENUM
+     *                                  mapping without values
+     */
+    static ValueCoercion compile(FieldMapping mapping) {
+        String transform = mapping.getTransform();
+        if (transform == null || transform.isBlank()) {
+            return NONE;
+        }
+        Type type;
+        try {
+            type = Type.valueOf(transform.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown transform '" + transform + "'");
+        }
+        DateTimeFormatter format = mapping.getFormat() == null || mapping.getFormat().isBlank()
+                ? null : DateTimeFormatter.ofPattern(mapping.getFormat(), Locale.ROOT);
+
+        ValueCoercion coercion = switch (type) {
+            case STRING -> ValueCoercion::toText;
+            case NUMBER -> ValueCoercion::toNumber;
+            case INTEGER -> ValueCoercion::toInteger;
+            case BOOLEAN -> ValueCoercion::toBoolean;
+            case ISO_INSTANT -> value -> TextNode.valueOf(toInstant(value, format).toString());
+            case ISO_DATE -> value -> TextNode.valueOf(toDate(value, format).toString());
+            case ENUM -> enumCoercion(mapping.getEnumValues());
+        };
+        // Null and blank values become JSON null; FieldMappingPlan rejects them for required slots
+        return value -> value.isNull() || value.isTextual() && value.textValue().isBlank()
+                ? NullNode.getInstance() : coercion.apply(value);
+    }
+
+    private static JsonNode toText(JsonNode value) {
+        if (!value.isValueNode()) {
+            throw new IllegalArgumentException("expected a scalar, got " + value.getNodeType());
+        }
+        return value.isTextual() ? value : TextNode.valueOf(value.asText());
+    }
+
+    private static JsonNode toNumber(JsonNode value) {
+        if (value.isNumber()) {
+            return value;
+        }
+        BigDecimal number = parseDecimal(value);
+        try {
+            return LongNode.valueOf(number.longValueExact());
+        } catch (ArithmeticException e) {
+            return DecimalNode.valueOf(number); // keeps the scale, so "12.50" stays 12.50
+        }
+    }
+
+    private static JsonNode toInteger(JsonNode value) {
+        if (value.isIntegralNumber() && value.canConvertToLong()) {
+            return value.isLong() ? value : LongNode.valueOf(value.longValue());
+        }
+        BigDecimal number = value.isNumber() ? value.decimalValue() : parseDecimal(value);
+        try {
+            return LongNode.valueOf(number.stripTrailingZeros().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("'" + value.asText() + "' is not a whole number");
+        }
+    }
+
+    private static JsonNode toBoolean(JsonNode value) {
+        if (value.isBoolean()) {
+            return value;
+        }
+        String text = value.asText().trim().toLowerCase(Locale.ROOT);
+        return switch (text) {
+            case "true", "1", "yes", "y" -> BooleanNode.TRUE;
+            case "false", "0", "no", "n" -> BooleanNode.FALSE;
+            default -> throw new IllegalArgumentException("'" + value.asText() + "' is not a boolean");
+        };
+    }
+
+    private static Instant toInstant(JsonNode value, DateTimeFormatter format) {
+        Long epoch = epochMillis(value, format);
+        if (epoch != null) {
+            return Instant.ofEpochMilli(epoch);
+        }
+        TemporalAccessor parsed = parseTemporal(value, format);
+        try {
+            if (!parsed.isSupported(ChronoField.HOUR_OF_DAY)) {
+                return LocalDate.from(parsed).atStartOfDay(ZoneOffset.UTC).toInstant();
+            }
+            // Partner times without an offset are taken as UTC
+            return parsed.isSupported(ChronoField.OFFSET_SECONDS)
+                    ? Instant.from(parsed) : LocalDateTime.from(parsed).toInstant(ZoneOffset.UTC);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("'" + value.asText() + "' is not a complete date-time");
+        }
+    }
+
+    private static LocalDate toDate(JsonNode value, DateTimeFormatter format) {
+        Long epoch = epochMillis(value, format);
+        if (epoch != null) {
+            return LocalDate.ofInstant(Instant.ofEpochMilli(epoch), ZoneOffset.UTC);
+        }
+        try {
+            // A date-time keeps the date it has in its own offset
+            return LocalDate.from(parseTemporal(value, format));
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("'" + value.asText() + "' is not a complete date");
+        }
+    }
+
+    /**
+     * All-digit text is only read as epoch without a format, so a pattern such as "yyyyMMdd" wins.
+     *
+     * @return epoch millis for numbers and, without a format, all-digit text; null for anything else
+     */
+    private static Long epochMillis(JsonNode value, DateTimeFormatter format) {
+        long epoch;
+        if (value.isIntegralNumber()) {
+            epoch = value.longValue();
+        } else if (value.isNumber()) {
+            return Math.round(value.doubleValue() * 1000); // fractional epoch seconds
+        } else if (format == null && value.isTextual() && isEpochText(value.textValue())) {
+            epoch = Long.parseLong(value.textValue().trim());
+        } else {
+            return null;
+        }
+        return Math.abs(epoch) < EPOCH_SECONDS_LIMIT ? epoch * 1000 : epoch;
+    }
+
+    private static boolean isEpochText(String text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (start < end && text.charAt(start) == '-') {
+            start++;
+        }
+        if (end - start == 0 || end - start > 18) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Without a format, ISO-8601 dates and date-times with or without offset are accepted.
+     */
+    private static TemporalAccessor parseTemporal(JsonNode value, DateTimeFormatter format) {
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException("expected a date or time, got " + value.getNodeType());
+        }
+        String text = value.textValue().trim();
+        try {
+            if (format != null) {
+                return format.parse(text);
+            }
+            return text.indexOf('T') > 0 ? DateTimeFormatter.ISO_DATE_TIME.parse(text) : DateTimeFormatter.ISO_DATE.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("'" + value.textValue() + "' is not a valid date or time");
+        }
+    }
+
+    private static BigDecimal parseDecimal(JsonNode value) {
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException("expected a number, got " + value.getNodeType());
+        }
+        try {
+            return new BigDecimal(value.textValue().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + value.textValue() + "' is not a number");
+        }
+    }
+
+    private static ValueCoercion enumCoercion(Map<String, String> enumValues) {
+        if (enumValues == null || enumValues.isEmpty()) {
+            throw new IllegalArgumentException("ENUM transform needs enumValues");
+        }
+        Map<String, JsonNode> values = new HashMap<>();
+        enumValues.forEach((from, to) -> values.put(from.toUpperCase(Locale.ROOT), TextNode.valueOf(to)));
+        return value -> {
+            if (!value.isValueNode()) {
+                throw new IllegalArgumentException("expected a scalar, got " + value.getNodeType());
+            }
+            JsonNode mapped = values.get(value.asText().trim().toUpperCase(Locale.ROOT));
+            if (mapped == null) {
+                throw new IllegalArgumentException("'" + value.asText() + "' has no enum mapping");
+            }
+            return mapped;
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.tms.adapter.client;
+
+import com.tms.adapter.config.OAuthProperties;
+import com.tms.adapter.dto.OAuthTokenResponse;
+import com.tms.adapter.dto.PartnerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OAuthTokenManagerTest {
+
+    private final PartnerHttpClients partnerHttpClients = mock(PartnerHttpClients.class);
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final OAuthProperties properties = new OAuthProperties();
+    private OAuthTokenManager manager;
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    void refreshesOnABoundedNamedPool() throws Exception {
+        properties.setRefreshThreads(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(partnerHttpClients.restTemplateFor(anyString())).thenReturn(restTemplate);
+        when(restTemplate.postForObject(anyString(), any(HttpEntity.class), eq(OAuthTokenResponse.class)))
+                .thenAnswer(invocation -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    threads.add(Thread.currentThread().getName());
+                    Thread.sleep(50);
+                    running.decrementAndGet();
+                    OAuthTokenResponse response = new OAuthTokenResponse();
+                    response.setAccessToken("token-" + invocation.getArgument(0));
+                    return response;
+                });
+        manager = new OAuthTokenManager(partnerHttpClients, properties);
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> tokens = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                PartnerConfig partner = partner("P" + i);
+                tokens.add(callers.submit(() -> manager.getToken(partner)));
+            }
+            for (int i = 0; i < 8; i++) {
+                assertThat(tokens.get(i).get(5, TimeUnit.SECONDS)).isEqualTo("token-https://auth/P" + i);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+        assertThat(threads).isNotEmpty().allMatch(name -> name.startsWith("oauth-refresh-"));
+    }
+
+    private static PartnerConfig partner(String partnerId) {
+        PartnerConfig partner = new PartnerConfig();
+        partner.setPartnerId(partnerId);
+        partner.setOauthUrl("https://auth/" + partnerId);
+        partner.setClientId("client");
+        partner.setClientSecret("secret");
+        return partner;
+    }
+}
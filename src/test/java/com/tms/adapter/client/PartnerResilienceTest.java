@@ -0,0 +1,134 @@
+package com.tms.adapter.client;
+
+import com.tms.adapter.config.PartnerApiProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PartnerResilienceTest {
+
+    private static final String PARTNER = "P1";
+    private static final Duration OPEN_DURATION = Duration.ofMillis(50);
+
+    private PartnerResilience resilience;
+
+    @BeforeEach
+    void setUp() {
+        PartnerApiProperties properties = new PartnerApiProperties();
+        properties.getRateLimit().setEnabled(false);
+        PartnerApiProperties.Resilience config = properties.getResilience();
+        config.setMaxAttempts(1);
+        config.setFailureThreshold(2);
+        config.setOpenDuration(OPEN_DURATION);
+        resilience = new PartnerResilience(new PartnerRateLimiter(properties), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        resilience.shutdown();
+    }
+
+    @Test
+    void opensAfterConsecutivePartnerFailures() {
+        fail(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+        fail(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        assertOpen();
+    }
+
+    @Test
+    void localRejectionDuringTrialKeepsCircuitHalfOpen() throws InterruptedException {
+        openThenWait();
+
+        // The trial never reached the partner, so it neither closes the circuit nor keeps the trial slot
+        fail(new PartnerUnavailableException("rate limited locally"));
+        // The next call is the trial; had the circuit closed, one failure would stay below the threshold
+        fail(new ResourceAccessException("connect timed out"));
+
+        assertOpen();
+    }
+
+    @Test
+    void failureAfterResponseClosesCircuit() throws InterruptedException {
+        openThenWait();
+
+        fail(permit -> {
+            permit.responded();
+            throw new IllegalStateException("handler failed");
+        });
+        fail(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+
+        assertThat(call()).isEqualTo("ok");
+    }
+
+    @Test
+    void clientErrorClosesCircuit() throws InterruptedException {
+        openThenWait();
+
+        fail(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+        fail(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+
+        assertThat(call()).isEqualTo("ok");
+    }
+
+    @Test
+    void errorDuringTrialReleasesTrialSlot() throws InterruptedException {
+        openThenWait();
+
+        assertThatThrownBy(() -> resilience.execute(PARTNER, permit -> {
+            throw new AssertionError("boom");
+        })).isInstanceOf(AssertionError.class);
+
+        assertThat(call()).isEqualTo("ok");
+    }
+
+    @Test
+    void secondCallIsRejectedWhileTrialInFlight() throws InterruptedException {
+        openThenWait();
+
+        String trial = resilience.execute(PARTNER, permit -> {
+            assertThatThrownBy(this::call)
+                    .isInstanceOf(PartnerUnavailableException.class)
+                    .hasMessageContaining("trial call in progress");
+            return "trial";
+        });
+
+        assertThat(trial).isEqualTo("trial");
+    }
+
+    private void openThenWait() throws InterruptedException {
+        fail(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+        fail(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+        Thread.sleep(OPEN_DURATION.toMillis() * 2);
+    }
+
+    private void assertOpen() {
+        assertThatThrownBy(this::call)
+                .isInstanceOf(PartnerUnavailableException.class)
+                .hasMessageContaining("is open");
+    }
+
+    private String call() {
+        return resilience.execute(PARTNER, permit -> "ok");
+    }
+
+    private void fail(RuntimeException failure) {
+        fail(permit -> {
+            throw failure;
+        });
+    }
+
+    private void fail(Function<PartnerRateLimiter.Permit, String> call) {
+        assertThatThrownBy(() -> resilience.execute(PARTNER, call)).isInstanceOf(RuntimeException.class);
+    }
+}
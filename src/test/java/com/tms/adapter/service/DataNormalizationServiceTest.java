@@ -0,0 +1,131 @@
+package com.tms.adapter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.adapter.client.ConfigServiceClient;
+import com.tms.adapter.config.FieldMappingCacheProperties;
+import com.tms.adapter.config.NormalizationProperties;
+import com.tms.adapter.config.PipelineMetrics;
+import com.tms.adapter.dto.FieldMapping;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DataNormalizationServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConfigServiceClient configServiceClient = mock(ConfigServiceClient.class);
+    private DataNormalizationService service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void deliversChunkedItemsInArrayOrder() {
+        service = service(4, 3);
+        RecordingSink sink = new RecordingSink(-1);
+
+        service.normalizeItems(items(10), "P1", "SHOW", sink);
+
+        assertThat(sink.delivered).containsExactly("0", "1", "2", "3", "4", "5", "6", "7", "8", "9");
+        assertThat(sink.failed).isEmpty();
+    }
+
+    @Test
+    void preparesItemsOffTheCallerThread() {
+        service = service(4, 3);
+        RecordingSink sink = new RecordingSink(-1);
+
+        service.normalizeItems(items(10), "P1", "SHOW", sink);
+
+        assertThat(sink.preparingThreads).anyMatch(name -> name.startsWith("normalize-"));
+    }
+
+    @Test
+    void anyRuntimeExceptionFailsOnlyItsOwnItem() {
+        service = service(4, 3);
+        RecordingSink sink = new RecordingSink(4);
+
+        service.normalizeItems(items(10), "P1", "SHOW", sink);
+
+        assertThat(sink.delivered).containsExactly("0", "1", "2", "3", "5", "6", "7", "8", "9");
+        assertThat(sink.failed).containsExactly("4: java.lang.IllegalStateException");
+    }
+
+    @Test
+    void normalizesArraysShorterThanAChunk() {
+        service = service(4, 100);
+        RecordingSink sink = new RecordingSink(-1);
+
+        service.normalizeItems(items(2), "P1", "SHOW", sink);
+
+        assertThat(sink.delivered).containsExactly("0", "1");
+    }
+
+    private DataNormalizationService service(int parallelism, int chunkSize) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSourceField("id");
+        mapping.setTargetField("externalId");
+        when(configServiceClient.getFieldMappings("P1", "SHOW")).thenReturn(List.of(mapping));
+
+        NormalizationProperties properties = new NormalizationProperties();
+        properties.getParallel().setParallelism(parallelism);
+        properties.getParallel().setChunkSize(chunkSize);
+        FieldMappingPlanCache planCache = new FieldMappingPlanCache(configServiceClient,
+                new FieldMappingCacheProperties(), new PipelineMetrics(new SimpleMeterRegistry()));
+        return new DataNormalizationService(objectMapper, planCache, new StreamingJsonNormalizer(objectMapper),
+                properties);
+    }
+
+    private static ByteArrayInputStream items(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":\"").append(i).append("\"}");
+        }
+        return new ByteArrayInputStream(json.append(']').toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class RecordingSink implements DataNormalizationService.ItemSink<String> {
+        private final int throwingItem;
+        private final List<String> delivered = new ArrayList<>();
+        private final List<String> failed = new ArrayList<>();
+        private final Set<String> preparingThreads = ConcurrentHashMap.newKeySet();
+
+        RecordingSink(int throwingItem) {
+            this.throwingItem = throwingItem;
+        }
+
+        @Override
+        public String prepare(JsonNode rawItem, JsonNode normalizedItem) {
+            preparingThreads.add(Thread.currentThread().getName());
+            String id = normalizedItem.get("externalId").asText();
+            if (id.equals(String.valueOf(throwingItem))) {
+                throw new IllegalStateException();
+            }
+            return id;
+        }
+
+        @Override
+        public void normalized(String id) {
+            delivered.add(id);
+        }
+
+        @Override
+        public void failed(JsonNode rawItem, String errorMessage) {
+            failed.add(rawItem.get("id").asText() + ": " + errorMessage);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tms.adapter.service;
+
+import com.tms.adapter.client.ConfigServiceClient;
+import com.tms.adapter.config.FieldMappingCacheProperties;
+import com.tms.adapter.config.PipelineMetrics;
+import com.tms.adapter.dto.FieldMapping;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FieldMappingPlanCacheTest {
+
+    private final ConfigServiceClient configServiceClient = mock(ConfigServiceClient.class);
+    private final FieldMappingPlanCache cache = new FieldMappingPlanCache(configServiceClient,
+            new FieldMappingCacheProperties(), new PipelineMetrics(new SimpleMeterRegistry()));
+
+    @Test
+    void unavailableMappingsYieldFallbackPlan() {
+        when(configServiceClient.getFieldMappings("P1", "SHOW")).thenThrow(new IllegalStateException("down"));
+
+        FieldMappingPlan plan = cache.getPlan("P1", "SHOW");
+
+        assertThat(plan.isEmpty()).isTrue();
+        assertThat(plan.isFallback()).isTrue();
+    }
+
+    @Test
+    void partnerWithoutMappingsIsNotFallback() {
+        when(configServiceClient.getFieldMappings("P1", "SHOW")).thenReturn(List.of());
+
+        assertThat(cache.getPlan("P1", "SHOW").isFallback()).isFalse();
+    }
+
+    @Test
+    void cachedPlanIsKeptWhenRefreshFails() {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSourceField("title");
+        mapping.setTargetField("name");
+        when(configServiceClient.getFieldMappings("P1", "SHOW"))
+                .thenReturn(List.of(mapping))
+                .thenThrow(new IllegalStateException("down"));
+
+        FieldMappingPlan compiled = cache.getPlan("P1", "SHOW");
+        cache.invalidateAll();
+
+        assertThat(cache.getPlan("P1", "SHOW")).isSameAs(compiled);
+        assertThat(compiled.isFallback()).isFalse();
+    }
+}
@@ -0,0 +1,79 @@
+package com.tms.adapter.service;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.tms.adapter.dto.FieldMapping;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FieldMappingPlanTest {
+
+    @Test
+    void requiredPlainFieldRejectsNull() {
+        FieldMappingPlan plan = FieldMappingPlan.compile(List.of(mapping("title", "name", true, null)), 1);
+
+        assertThatThrownBy(() -> plan.write(0, object(), NullNode.getInstance(), "P1", "SHOW"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Required field 'title' is null or blank");
+    }
+
+    @Test
+    void requiredPlainFieldKeepsBlankText() {
+        FieldMappingPlan plan = FieldMappingPlan.compile(List.of(mapping("title", "name", true, null)), 1);
+        ObjectNode target = object();
+
+        plan.write(0, target, TextNode.valueOf(""), "P1", "SHOW");
+
+        assertThat(target.get("name").textValue()).isEmpty();
+    }
+
+    @Test
+    void requiredTransformedFieldRejectsBlankText() {
+        FieldMappingPlan plan = FieldMappingPlan.compile(List.of(mapping("price", "price", true, "NUMBER")), 1);
+
+        assertThatThrownBy(() -> plan.write(0, object(), TextNode.valueOf(" "), "P1", "SHOW"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void optionalFieldWritesNull() {
+        FieldMappingPlan plan = FieldMappingPlan.compile(List.of(mapping("title", "name", false, null)), 1);
+        ObjectNode target = object();
+
+        plan.write(0, target, NullNode.getInstance(), "P1", "SHOW");
+
+        assertThat(target.get("name").isNull()).isTrue();
+    }
+
+    @Test
+    void writesNestedTargets() {
+        FieldMappingPlan plan = FieldMappingPlan.compile(
+                List.of(mapping("/venue/address/city", "/location/city", false, "STRING")), 1);
+        ObjectNode source = object();
+        source.putObject("venue").putObject("address").put("city", "Leeds");
+        ObjectNode target = object();
+
+        plan.write(0, target, plan.read(0, source), "P1", "SHOW");
+
+        assertThat(target.at("/location/city").textValue()).isEqualTo("Leeds");
+    }
+
+    private static ObjectNode object() {
+        return JsonNodeFactory.instance.objectNode();
+    }
+
+    private static FieldMapping mapping(String source, String target, boolean required, String transform) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSourceField(source);
+        mapping.setTargetField(target);
+        mapping.setRequired(required);
+        mapping.setTransform(transform);
+        return mapping;
+    }
+}
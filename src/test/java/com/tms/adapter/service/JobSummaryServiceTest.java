@@ -0,0 +1,115 @@
+package com.tms.adapter.service;
+
+import com.tms.adapter.entity.JobDailySummary;
+import com.tms.adapter.entity.JobExecution;
+import com.tms.adapter.entity.JobPartnerSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Summaries are maintained with per-partner locks and in-place daily increments; these tests
+ * record executions the way the polling lanes do and check the totals add up.
+ */
+@DataJpaTest
+@Import(JobSummaryService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobSummaryServiceTest {
+
+    // The database is shared and nothing is rolled back, so every test records a day of its own
+    private static final AtomicInteger DAYS = new AtomicInteger();
+
+    private final LocalDate jobDate = LocalDate.of(2024, 5, 1).plusDays(DAYS.getAndIncrement());
+
+    @Autowired
+    private JobSummaryService jobSummaryService;
+
+    @Test
+    void movesDailyTotalsAsPartnerStatusesChange() {
+        jobSummaryService.record(execution("p1", "SHIPMENT", "SUCCESS"));
+        jobSummaryService.record(execution("p2", "SHIPMENT", "FAILED"));
+        assertDaily(2, 1, 1);
+
+        // p1 becomes PARTIAL, p2 stays FAILED
+        jobSummaryService.record(execution("p1", "ORDER", "FAILED"));
+        jobSummaryService.record(execution("p2", "ORDER", "FAILED"));
+        assertDaily(2, 0, 1);
+
+        JobPartnerSummary p1 = jobSummaryService.findPartnerSummary(jobDate, "p1").orElseThrow();
+        assertThat(p1.getOverallStatus()).isEqualTo("PARTIAL");
+        assertThat(p1.getFailedEntityTypes()).isEqualTo("ORDER");
+        assertThat(jobSummaryService.findPartnerSummaries(jobDate)).hasSize(2);
+    }
+
+    @Test
+    void bumpsTheVersionOnEveryRecord() {
+        jobSummaryService.record(execution("p1", "SHIPMENT", "SUCCESS"));
+        long version = daily().getVersion();
+
+        jobSummaryService.record(execution("p1", "ORDER", "SUCCESS"));
+
+        assertThat(daily().getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void concurrentExecutionsAddUp() throws Exception {
+        int partners = 8;
+        int entityTypes = 6;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < partners; p++) {
+                for (int e = 0; e < entityTypes; e++) {
+                    // Even partners fail their last entity type and end up PARTIAL
+                    String status = p % 2 == 0 && e == entityTypes - 1 ? "FAILED" : "SUCCESS";
+                    JobExecution execution = execution("p" + p, "E" + e, status);
+                    futures.add(executor.submit(() -> jobSummaryService.record(execution)));
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertDaily(partners, partners / 2, 0);
+        assertThat(jobSummaryService.findPartnerSummaries(jobDate))
+                .allSatisfy(partner -> assertThat(partner.getSuccessfulEntities() + partner.getFailedEntities())
+                        .isEqualTo(entityTypes));
+    }
+
+    private void assertDaily(int total, int successful, int failed) {
+        JobDailySummary daily = daily();
+        assertThat(daily.getTotalPartners()).isEqualTo(total);
+        assertThat(daily.getSuccessfulPartners()).isEqualTo(successful);
+        assertThat(daily.getFailedPartners()).isEqualTo(failed);
+    }
+
+    private JobDailySummary daily() {
+        return jobSummaryService.findDailySummary(jobDate).orElseThrow();
+    }
+
+    private JobExecution execution(String partnerId, String entityType, String status) {
+        return JobExecution.builder()
+                .jobDate(jobDate)
+                .partnerId(partnerId)
+                .entityType(entityType)
+                .status(status)
+                .recordsProcessed(10)
+                .build();
+    }
+}
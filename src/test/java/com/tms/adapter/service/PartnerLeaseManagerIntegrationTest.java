@@ -0,0 +1,169 @@
+package com.tms.adapter.service;
+
+import com.tms.adapter.TmsRestAdapterApplication;
+import com.tms.adapter.client.PartnerConfigCache;
+import com.tms.adapter.dto.PartnerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+import org.springframework.scheduling.config.ScheduledTask;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Several adapter instances sharing one database: partners are split between them, taken over
+ * when an instance stops heartbeating, and handed back when an instance shuts down.
+ *
+ * Each instance is a full application context with its own WireMock partner stubs; they share a
+ * named in-memory H2 database that outlives the individual contexts.
+ */
+class PartnerLeaseManagerIntegrationTest {
+
+    private static final int PARTNERS = 10;
+    private static final Duration LEASE_DURATION = Duration.ofSeconds(4);
+
+    private final String databaseUrl = "jdbc:h2:mem:leases-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+    @AfterEach
+    void closeContexts() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void splitsTakesOverAndReleasesPartnerLeases() throws Exception {
+        ConfigurableApplicationContext a = start("A");
+        Set<String> partners = partnerIds(a);
+        assertThat(partners).hasSize(PARTNERS);
+        await("A holds every partner", () -> leases(a).equals(partners));
+
+        ConfigurableApplicationContext b = start("B");
+        ConfigurableApplicationContext c = start("C");
+        // ceil(10 / 3) = 4 per instance at most
+        await("three instances split the partners", () -> isSplit(partners, 4, a, b, c));
+        assertThat(leases(c)).isNotEmpty();
+
+        // A crash: C stops heartbeating and never releases its leases
+        Set<String> crashed = leases(c);
+        stopHeartbeat(c);
+        PartnerLeaseManager crashedManager = c.getBean(PartnerLeaseManager.class);
+        await("C stops holding its partners once their leases lapse locally",
+                () -> crashed.stream().noneMatch(crashedManager::holds));
+        PartnerPollingService crashedPolling = c.getBean(PartnerPollingService.class);
+        assertThat(crashed).allSatisfy(partnerId -> assertThat(
+                crashedPolling.pollPartner(partnerId, PartnerPollingService.ENTITY_TYPES)).isEmpty());
+        await("A and B take over C's partners once its leases expire", () -> isSplit(partners, 5, a, b));
+        assertThat(union(a, b)).containsAll(crashed);
+
+        // A clean shutdown: A releases its leases, B claims them before they would have expired
+        Set<String> released = leases(a);
+        Instant closedAt = Instant.now();
+        a.close();
+        contexts.remove(a);
+        await("B holds every partner after A shut down", () -> leases(b).equals(partners));
+        assertThat(leases(b)).containsAll(released);
+        assertThat(Duration.between(closedAt, Instant.now())).isLessThan(LEASE_DURATION);
+    }
+
+    private ConfigurableApplicationContext start(String instanceId) throws IOException {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TmsRestAdapterApplication.class)
+                .profiles("loadtest")
+                .run("--server.port=0",
+                        "--wiremock.port=" + freePort(),
+                        "--spring.datasource.url=" + databaseUrl,
+                        // The schema is shared, so closing one context must not drop it
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--spring.jmx.enabled=false",
+                        "--sharding.enabled=true",
+                        "--sharding.instance-id=" + instanceId,
+                        "--sharding.lease-duration=" + LEASE_DURATION.toMillis() + "ms",
+                        "--sharding.heartbeat-interval-ms=300",
+                        "--sharding.clock-skew-margin=500ms",
+                        "--polling.schedule.enabled=false",
+                        "--load-test.partners=" + PARTNERS,
+                        "--load-test.runs=0",
+                        "--load-test.exit-when-done=false");
+        contexts.add(context);
+        return context;
+    }
+
+    /**
+     * Cancels the instance's lease heartbeat, leaving everything else running as after a hang.
+     */
+    private static void stopHeartbeat(ConfigurableApplicationContext context) {
+        PartnerLeaseManager leaseManager = context.getBean(PartnerLeaseManager.class);
+        List<ScheduledTask> heartbeats = context.getBean(ScheduledAnnotationBeanPostProcessor.class)
+                .getScheduledTasks().stream()
+                .filter(task -> task.getTask().getRunnable() instanceof ScheduledMethodRunnable runnable
+                        && runnable.getTarget() == leaseManager
+                        && runnable.getMethod().getName().equals("heartbeat"))
+                .toList();
+        assertThat(heartbeats).hasSize(1);
+        heartbeats.forEach(ScheduledTask::cancel);
+    }
+
+    private static Set<String> partnerIds(ConfigurableApplicationContext context) {
+        return context.getBean(PartnerConfigCache.class).getActivePartners().stream()
+                .map(PartnerConfig::getPartnerId)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> leases(ConfigurableApplicationContext context) {
+        return context.getBean(PartnerLeaseManager.class).heldPartners();
+    }
+
+    private static Set<String> union(ConfigurableApplicationContext... instances) {
+        Set<String> all = new HashSet<>();
+        for (ConfigurableApplicationContext instance : instances) {
+            all.addAll(leases(instance));
+        }
+        return all;
+    }
+
+    /**
+     * Every partner is held by exactly one of the instances, none holding more than its fair share.
+     */
+    private static boolean isSplit(Set<String> partners, int fairShare, ConfigurableApplicationContext... instances) {
+        int held = 0;
+        for (ConfigurableApplicationContext instance : instances) {
+            Set<String> leases = leases(instance);
+            if (leases.size() > fairShare) {
+                return false;
+            }
+            held += leases.size();
+        }
+        return held == partners.size() && union(instances).equals(partners);
+    }
+
+    private static void await(String description, BooleanSupplier condition) throws InterruptedException {
+        Instant deadline = Instant.now().plus(LEASE_DURATION.multipliedBy(4));
+        while (!condition.getAsBoolean()) {
+            if (Instant.now().isAfter(deadline)) {
+                fail("Timed out waiting until " + description);
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
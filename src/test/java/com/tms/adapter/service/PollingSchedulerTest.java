@@ -0,0 +1,63 @@
+package com.tms.adapter.service;
+
+import com.tms.adapter.client.PartnerConfigCache;
+import com.tms.adapter.config.PollingProperties;
+import com.tms.adapter.dto.PartnerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PollingSchedulerTest {
+
+    private final PartnerPollingService partnerPollingService = mock(PartnerPollingService.class);
+    private final PartnerConfigCache partnerConfigCache = mock(PartnerConfigCache.class);
+    private final PartnerLeaseManager partnerLeaseManager = mock(PartnerLeaseManager.class);
+    private final PollingProperties properties = new PollingProperties();
+    private PollingScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        PartnerConfig partner = new PartnerConfig();
+        partner.setPartnerId("PVR");
+        when(partnerConfigCache.getActivePartners()).thenReturn(List.of(partner));
+        when(partnerLeaseManager.holds("PVR")).thenReturn(true);
+        when(partnerPollingService.pollPartner(eq("PVR"), anyList())).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void pollsANewPartnerRightAwayInsteadOfAtItsFirstSlot() {
+        properties.getSchedule().setJitter(0);
+        scheduler = new PollingScheduler(partnerPollingService, partnerConfigCache, partnerLeaseManager, properties);
+
+        scheduler.dispatchDuePolls();
+
+        verify(partnerPollingService, timeout(2000)).pollPartner("PVR", PartnerPollingService.ENTITY_TYPES);
+    }
+
+    @Test
+    void spreadsTheFirstPollOverTheJitter() {
+        properties.getSchedule().setMaxJitter(Duration.ofHours(1));
+        scheduler = new PollingScheduler(partnerPollingService, partnerConfigCache, partnerLeaseManager, properties);
+
+        scheduler.dispatchDuePolls();
+
+        verify(partnerPollingService, after(300).never()).pollPartner(eq("PVR"), anyList());
+    }
+}
@@ -0,0 +1,205 @@
+package com.tms.adapter.service;
+
+import com.tms.adapter.config.PipelineMetrics;
+import com.tms.adapter.config.StagingProperties;
+import com.tms.adapter.entity.StagingRecord;
+import com.tms.adapter.repository.StagingRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StagingWriterTest {
+
+    private final StagingRecordRepository repository = mock(StagingRecordRepository.class);
+    private final PayloadStore payloadStore = mock(PayloadStore.class);
+    private final List<List<StagingRecord>> committed = new ArrayList<>();
+    private StagingWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        StagingProperties properties = new StagingProperties();
+        // Long enough for batches submitted back to back to share a transaction
+        properties.getWriter().setMaxLinger(Duration.ofMillis(300));
+        writer = new StagingWriter(repository, properties, new TransactionTemplate(new NoOpTransactionManager()),
+                payloadStore, new PipelineMetrics(new SimpleMeterRegistry()));
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    @Test
+    void classifiesAgainstLatestStagedVersions() throws Exception {
+        when(repository.findLatestContentHashes(eq("P1"), eq("SHOW"), anyCollection()))
+                .thenReturn(List.of(hash("same", 1L), hash("edited", 2L)));
+        acceptSaves();
+
+        StagingWriter.WriteResult result = get(writer.submit("P1", "SHOW", new ArrayList<>(List.of(
+                item("same", 1L), item("edited", 3L), item("added", 4L), failedItem()))));
+
+        assertThat(result).isEqualTo(new StagingWriter.WriteResult(2, 1, 1, 1, 1));
+        assertThat(committed).hasSize(1);
+        assertThat(committed.get(0)).extracting(StagingRecord::getExternalId, StagingRecord::getChangeType)
+                .containsExactly(
+                        tuple("edited", "CHANGED"),
+                        tuple("added", "NEW"),
+                        tuple(null, null));
+    }
+
+    @Test
+    void repeatWithinPayloadComparesAgainstEarlierVersion() throws Exception {
+        acceptSaves();
+
+        StagingWriter.WriteResult result = get(writer.submit("P1", "SHOW", new ArrayList<>(List.of(
+                item("dup", 1L), item("dup", 1L), item("dup", 2L)))));
+
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(result.unchanged()).isEqualTo(1);
+        assertThat(result.changed()).isEqualTo(1);
+    }
+
+    @Test
+    void retriedBatchKeepsRecordDroppedAgainstFailedBatch() throws Exception {
+        // The group transaction fails, and so does the first batch on its own
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            List<StagingRecord> rows = new ArrayList<>();
+            invocation.<Iterable<StagingRecord>>getArgument(0).forEach(rows::add);
+            if (rows.stream().anyMatch(row -> "bad".equals(row.getBatchId()))) {
+                throw new DataIntegrityViolationException("constraint");
+            }
+            committed.add(rows);
+            return rows;
+        });
+
+        CompletableFuture<StagingWriter.WriteResult> first = writer.submit("P1", "SHOW",
+                new ArrayList<>(List.of(item("x", 1L, "bad"))));
+        CompletableFuture<StagingWriter.WriteResult> second = writer.submit("P1", "SHOW",
+                new ArrayList<>(List.of(item("x", 1L, "good"))));
+
+        assertThatThrownBy(() -> get(first)).hasCauseInstanceOf(DataIntegrityViolationException.class);
+        StagingWriter.WriteResult result = get(second);
+
+        // Classified against the failed first batch, "x" would have been dropped as unchanged
+        assertThat(result).isEqualTo(new StagingWriter.WriteResult(1, 1, 0, 0, 0));
+        assertThat(committed).hasSize(1);
+        assertThat(committed.get(0)).extracting(StagingRecord::getExternalId).containsExactly("x");
+    }
+
+    @Test
+    void movesOnlyLargePayloadsToThePayloadStore() throws Exception {
+        when(payloadStore.isEnabled()).thenReturn(true);
+        when(payloadStore.stores(any())).thenAnswer(invocation -> {
+            String payload = invocation.getArgument(0);
+            return payload != null && payload.length() >= 10;
+        });
+        when(payloadStore.putAll(eq("SHOW"), any())).thenAnswer(invocation -> invocation.<List<String>>getArgument(1)
+                .stream().map(payload -> "key-" + payload.length()).toList());
+        acceptSaves();
+        StagingRecord large = item("large", 2L);
+        large.setRawData("{\"title\":\"Large\"}");
+
+        get(writer.submit("P1", "SHOW", new ArrayList<>(List.of(item("small", 1L), large))));
+
+        verify(payloadStore).putAll("SHOW", List.of("{\"title\":\"Large\"}"));
+        assertThat(committed.get(0))
+                .extracting(StagingRecord::getRawData, StagingRecord::getRawRef, StagingRecord::getNormalizedData)
+                .containsExactly(
+                        tuple("{}", null, "{}"),
+                        tuple(null, "key-17", "{}"));
+    }
+
+    private void acceptSaves() {
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            List<StagingRecord> rows = new ArrayList<>();
+            invocation.<Iterable<StagingRecord>>getArgument(0).forEach(rows::add);
+            committed.add(rows);
+            return rows;
+        });
+    }
+
+    private static StagingWriter.WriteResult get(CompletableFuture<StagingWriter.WriteResult> result)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        return result.get(5, TimeUnit.SECONDS);
+    }
+
+    private static StagingRecord item(String externalId, long contentHash) {
+        return item(externalId, contentHash, "batch");
+    }
+
+    private static StagingRecord item(String externalId, long contentHash, String batchId) {
+        return StagingRecord.builder()
+                .partnerId("P1")
+                .entityType("SHOW")
+                .externalId(externalId)
+                .batchId(batchId)
+                .contentHash(contentHash)
+                .rawData("{}")
+                .normalizedData("{}")
+                .build();
+    }
+
+    private static StagingRecord failedItem() {
+        return StagingRecord.builder()
+                .partnerId("P1")
+                .entityType("SHOW")
+                .status("FAILED")
+                .rawData("{")
+                .build();
+    }
+
+    private static StagingRecordRepository.ContentHashView hash(String externalId, long contentHash) {
+        return new StagingRecordRepository.ContentHashView() {
+            @Override
+            public String getExternalId() {
+                return externalId;
+            }
+
+            @Override
+            public Long getContentHash() {
+                return contentHash;
+            }
+        };
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.tms.adapter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.tms.adapter.dto.FieldMapping;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ValueCoercionTest {
+
+    @Test
+    void digitOnlyFormatWinsOverEpochText() {
+        ValueCoercion date = compile("ISO_DATE", "yyyyMMdd");
+
+        assertThat(date.apply(TextNode.valueOf("20240501")).textValue()).isEqualTo("2024-05-01");
+    }
+
+    @Test
+    void digitOnlyFormatAppliesToInstants() {
+        ValueCoercion instant = compile("ISO_INSTANT", "yyyyMMddHHmm");
+
+        assertThat(instant.apply(TextNode.valueOf("202405011830")).textValue()).isEqualTo("2024-05-01T18:30:00Z");
+    }
+
+    @Test
+    void numbersAreEpochEvenWithFormat() {
+        ValueCoercion date = compile("ISO_DATE", "yyyyMMdd");
+
+        assertThat(date.apply(LongNode.valueOf(1_714_588_200L)).textValue()).isEqualTo("2024-05-01");
+    }
+
+    @Test
+    void digitTextIsEpochWithoutFormat() {
+        ValueCoercion instant = compile("ISO_INSTANT", null);
+
+        assertThat(instant.apply(TextNode.valueOf("1714588200")).textValue()).isEqualTo("2024-05-01T18:30:00Z");
+        assertThat(instant.apply(TextNode.valueOf("1714588200000")).textValue()).isEqualTo("2024-05-01T18:30:00Z");
+    }
+
+    @Test
+    void textNotMatchingFormatFails() {
+        ValueCoercion date = compile("ISO_DATE", "yyyyMMdd");
+
+        assertThatThrownBy(() -> date.apply(TextNode.valueOf("2024-05-01")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void nullAndBlankBecomeNull() {
+        ValueCoercion number = compile("NUMBER", null);
+
+        assertThat(number.apply(NullNode.getInstance()).isNull()).isTrue();
+        assertThat(number.apply(TextNode.valueOf("  ")).isNull()).isTrue();
+        assertThat(number.apply(TextNode.valueOf("12.50")).decimalValue()).isEqualByComparingTo("12.50");
+    }
+
+    @Test
+    void integersRejectFractions() {
+        ValueCoercion integer = compile("INTEGER", null);
+
+        assertThat(integer.apply(TextNode.valueOf("42.0")).longValue()).isEqualTo(42);
+        assertThat(integer.apply(IntNode.valueOf(7)).longValue()).isEqualTo(7);
+        assertThatThrownBy(() -> integer.apply(TextNode.valueOf("42.5")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void enumsMatchIgnoringCase() {
+        FieldMapping mapping = mapping("ENUM", null);
+        mapping.setEnumValues(Map.of("on", "ACTIVE"));
+        ValueCoercion state = ValueCoercion.compile(mapping);
+
+        assertThat(state.apply(TextNode.valueOf(" ON ")).textValue()).isEqualTo("ACTIVE");
+        assertThatThrownBy(() -> state.apply(TextNode.valueOf("off")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void unknownTransformIsRejected() {
+        assertThatThrownBy(() -> compile("UPPERCASE", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("UPPERCASE");
+    }
+
+    @Test
+    void noTransformKeepsValue() {
+        JsonNode value = TextNode.valueOf("as is");
+
+        assertThat(compile(null, null).apply(value)).isSameAs(value);
+    }
+
+    private static ValueCoercion compile(String transform, String format) {
+        return ValueCoercion.compile(mapping(transform, format));
+    }
+
+    private static FieldMapping mapping(String transform, String format) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSourceField("value");
+        mapping.setTargetField("value");
+        mapping.setTransform(transform);
+        mapping.setFormat(format);
+        return mapping;
+    }
+}